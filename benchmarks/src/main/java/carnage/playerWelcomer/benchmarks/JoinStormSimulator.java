@@ -0,0 +1,329 @@
+package carnage.playerWelcomer.benchmarks;
+
+import carnage.playerWelcomer.PlayerWelcomer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless join storm against the real plugin on a MockBukkit server. Synthetic players join
+ * over a number of ticks while veterans run {@code /welcome} on each of them, and the server
+ * is ticked by hand so every piece of main-thread work is timed.
+ * Reports latency from join to first-join broadcast, from command to the reward result, and
+ * main-thread time per tick.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar carnage.playerWelcomer.benchmarks.JoinStormSimulator
+ * [--players=1000] [--join-ticks=100] [--veterans=50] [--command-delay-ticks=40] [--tick-ms=50]}.
+ * A tick length of 0 runs ticks back to back. Messages are recognized by the default config's
+ * wording; no reward plugin is installed, so each welcome ends in the reward-failed message
+ * after the reward lookup ran.
+ */
+public final class JoinStormSimulator {
+    // Ends both the single first-join line and the storm summary, but not the /welcome broadcast
+    private static final String[] FIRST_JOIN_MARKERS = {"to the server!"};
+    private static final String[] REWARD_MARKERS = {"You welcomed a new player", "Failed to give reward"};
+    private static final String[] REJECTION_MARKERS = {
+            "already been welcomed", "welcome period has expired", "Please wait", "slow down", "shutting down"
+    };
+    private static final int SETTLE_TICKS = 100;
+    private static final int MAX_DRAIN_TICKS = 1_200;
+    private static final int QUEUE_SWEEP_TICKS = 20;
+
+    private final int players;
+    private final int joinTicks;
+    private final int veteranCount;
+    private final int commandDelayTicks;
+    private final long tickNanos;
+
+    private final LatencyRecorder joinLatency = new LatencyRecorder();
+    private final LatencyRecorder commandLatency = new LatencyRecorder();
+    private final LatencyRecorder tickTime = new LatencyRecorder();
+    private int rejectedCommands;
+
+    private ServerMock server;
+    private PlayerMock observer;
+    private final List<PlayerMock> joined = new ArrayList<>();
+    private final ArrayDeque<Long> pendingAnnouncements = new ArrayDeque<>();
+    private final ArrayDeque<Veteran> idleVeterans = new ArrayDeque<>();
+    private final List<Veteran> busyVeterans = new ArrayList<>();
+    private final ArrayDeque<PlayerMock> pendingTargets = new ArrayDeque<>();
+
+    private JoinStormSimulator(int players, int joinTicks, int veteranCount, int commandDelayTicks, long tickMs) {
+        this.players = players;
+        this.joinTicks = joinTicks;
+        this.veteranCount = veteranCount;
+        this.commandDelayTicks = commandDelayTicks;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int players = 1_000;
+        int joinTicks = 100;
+        int veterans = 50;
+        int commandDelayTicks = 40;
+        long tickMs = 50L;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value: " + arg);
+            }
+            switch (option[0]) {
+                case "--players" -> players = Integer.parseInt(option[1]);
+                case "--join-ticks" -> joinTicks = Integer.parseInt(option[1]);
+                case "--veterans" -> veterans = Integer.parseInt(option[1]);
+                case "--command-delay-ticks" -> commandDelayTicks = Integer.parseInt(option[1]);
+                case "--tick-ms" -> tickMs = Long.parseLong(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + option[0]);
+            }
+        }
+
+        new JoinStormSimulator(players, joinTicks, veterans, commandDelayTicks, tickMs).run();
+    }
+
+    private void run() throws IOException {
+        server = MockBukkit.mock();
+        try {
+            PlayerWelcomer plugin = MockBukkit.load(PlayerWelcomer.class);
+            configure(plugin);
+
+            observer = server.addPlayer("Observer");
+            for (int i = 0; i < veteranCount; i++) {
+                idleVeterans.add(new Veteran(server.addPlayer("Veteran" + i)));
+            }
+
+            // Let the veterans' own first-join announcements pass before measuring
+            for (int i = 0; i < SETTLE_TICKS; i++) {
+                server.getScheduler().performOneTick();
+            }
+            sweepMessageQueues();
+
+            simulate();
+            report();
+        } finally {
+            MockBukkit.unmock();
+        }
+    }
+
+    /**
+     * Lifts the cooldown and rate limit so every veteran can welcome again right away.
+     * The rate limit is only read on enable, so the plugin is restarted.
+     */
+    private void configure(PlayerWelcomer plugin) throws IOException {
+        File configFile = new File(plugin.getDataFolder(), "config.yml");
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(configFile);
+        config.set("welcome-command.cooldown", 0);
+        config.set("welcome-command.rate-limit.max-commands", 1_000);
+        config.save(configFile);
+
+        server.getPluginManager().disablePlugin(plugin);
+        server.getPluginManager().enablePlugin(plugin);
+    }
+
+    private void simulate() {
+        int joinsPerTick = Math.max(1, (players + joinTicks - 1) / joinTicks);
+        int lastTick = joinTicks + commandDelayTicks + MAX_DRAIN_TICKS;
+        long nextTick = System.nanoTime();
+
+        for (int tick = 0; tick < lastTick; tick++) {
+            if (tick >= joinTicks + commandDelayTicks && isDrained()) {
+                break;
+            }
+
+            long start = System.nanoTime();
+            joinPlayers(tick, joinsPerTick);
+            issueCommands(tick, joinsPerTick);
+            server.getScheduler().performOneTick();
+            long end = System.nanoTime();
+            tickTime.record(end - start);
+
+            collectAnnouncements(end);
+            collectCommandResults();
+            if (tick % QUEUE_SWEEP_TICKS == 0) {
+                sweepMessageQueues();
+            }
+
+            if (tickNanos > 0L) {
+                nextTick += tickNanos;
+                LockSupport.parkNanos(nextTick - System.nanoTime());
+            }
+        }
+    }
+
+    private void joinPlayers(int tick, int joinsPerTick) {
+        for (int i = tick * joinsPerTick; i < Math.min(players, (tick + 1) * joinsPerTick); i++) {
+            long joinedAt = System.nanoTime();
+            joined.add(server.addPlayer("Player" + i));
+            pendingAnnouncements.add(joinedAt);
+        }
+    }
+
+    /**
+     * Players get welcomed a fixed delay after joining, by whichever veteran is free.
+     */
+    private void issueCommands(int tick, int joinsPerTick) {
+        int joinTick = tick - commandDelayTicks;
+        if (joinTick >= 0) {
+            for (int i = joinTick * joinsPerTick; i < Math.min(joined.size(), (joinTick + 1) * joinsPerTick); i++) {
+                pendingTargets.add(joined.get(i));
+            }
+        }
+
+        while (!pendingTargets.isEmpty() && !idleVeterans.isEmpty()) {
+            Veteran veteran = idleVeterans.poll();
+            veteran.commandedAt = System.nanoTime();
+            veteran.player.performCommand("welcome " + pendingTargets.poll().getName());
+            busyVeterans.add(veteran);
+        }
+    }
+
+    /**
+     * A drain announces everyone queued so far, so any first-join broadcast completes
+     * every pending join.
+     */
+    private void collectAnnouncements(long observedAt) {
+        boolean announced = false;
+        Component message;
+        while ((message = observer.nextComponentMessage()) != null) {
+            if (containsAny(plainText(message), FIRST_JOIN_MARKERS)) {
+                announced = true;
+            }
+        }
+
+        if (announced) {
+            Long joinedAt;
+            while ((joinedAt = pendingAnnouncements.poll()) != null) {
+                joinLatency.record(observedAt - joinedAt);
+            }
+        }
+    }
+
+    private void collectCommandResults() {
+        long now = System.nanoTime();
+        for (int i = busyVeterans.size() - 1; i >= 0; i--) {
+            Veteran veteran = busyVeterans.get(i);
+            Component message;
+            while ((message = veteran.player.nextComponentMessage()) != null) {
+                String text = plainText(message);
+                if (containsAny(text, REWARD_MARKERS)) {
+                    commandLatency.record(now - veteran.commandedAt);
+                } else if (containsAny(text, REJECTION_MARKERS)) {
+                    rejectedCommands++;
+                } else {
+                    continue;
+                }
+
+                busyVeterans.remove(i);
+                idleVeterans.add(veteran);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Drops the broadcasts piling up in every other player's inbox.
+     */
+    private void sweepMessageQueues() {
+        while (observer.nextComponentMessage() != null) {
+            // Discard; only called once the observer's messages were collected
+        }
+        for (PlayerMock player : joined) {
+            while (player.nextComponentMessage() != null) {
+                // Discard
+            }
+        }
+        for (Veteran veteran : idleVeterans) {
+            while (veteran.player.nextComponentMessage() != null) {
+                // Discard
+            }
+        }
+    }
+
+    private boolean isDrained() {
+        return pendingAnnouncements.isEmpty() && pendingTargets.isEmpty() && busyVeterans.isEmpty();
+    }
+
+    private void report() {
+        System.out.printf(Locale.ROOT, "%d players joined over %d ticks, welcomed by %d veterans (tick length %s)%n",
+                players, joinTicks, veteranCount,
+                tickNanos > 0L ? TimeUnit.NANOSECONDS.toMillis(tickNanos) + " ms" : "unpaced");
+        System.out.println("Join to broadcast:    " + joinLatency.summary()
+                + (pendingAnnouncements.isEmpty() ? "" : ", " + pendingAnnouncements.size() + " never announced"));
+        System.out.println("Command to reward:    " + commandLatency.summary()
+                + ", " + rejectedCommands + " rejected, " + (busyVeterans.size() + pendingTargets.size()) + " unanswered");
+        System.out.println("Main thread per tick: " + tickTime.summary()
+                + String.format(Locale.ROOT, ", %.2f ms total", tickTime.total() / 1e6));
+    }
+
+    private static String plainText(Component message) {
+        return PlainTextComponentSerializer.plainText().serialize(message);
+    }
+
+    private static boolean containsAny(String text, String[] markers) {
+        for (String marker : markers) {
+            if (text.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Veteran {
+        private final PlayerMock player;
+        private long commandedAt;
+
+        private Veteran(PlayerMock player) {
+            this.player = player;
+        }
+    }
+
+    /**
+     * Collects raw nanosecond samples; fine for the few thousand a run produces.
+     */
+    private static final class LatencyRecorder {
+        private long[] samples = new long[1_024];
+        private int count;
+
+        void record(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        long total() {
+            long total = 0L;
+            for (int i = 0; i < count; i++) {
+                total += samples[i];
+            }
+            return total;
+        }
+
+        String summary() {
+            if (count == 0) {
+                return "no samples";
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return String.format(Locale.ROOT, "p50 %.2f ms, p99 %.2f ms, max %.2f ms (%d samples)",
+                    percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[count - 1] / 1e6, count);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package carnage.playerWelcomer.benchmarks;
+
+import carnage.playerWelcomer.managers.ConfigManager;
+import carnage.playerWelcomer.util.ComponentTemplate;
+import carnage.playerWelcomer.util.MessageTemplate;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Color translation and placeholder rendering of the default messages, each next to the
+ * straightforward approach it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark {
+    private static final String WELCOME_MESSAGE =
+            "#00FF00Welcome to the server, #FFFF00%target_name%#00FF00! Welcomed by #FFFF00%player_name%";
+    private static final String FIRST_JOIN_LINE =
+            "#00FF00&lWelcome #FFFF00%player_name% #808080to the server! #808080[&f#%unique_join_count%#808080]";
+    private static final String SUCCESS_MESSAGE =
+            "#00FF00You welcomed a new player and received #ADD8E6%reward_amount% %reward_display%!";
+
+    public String targetName = "Steve";
+    public String playerName = "Alex";
+
+    private ConfigManager configManager;
+    private String translatedWelcome;
+    private String translatedSuccess;
+    private MessageTemplate successTemplate;
+    private ComponentTemplate welcomeTemplate;
+
+    @Setup
+    public void setUp() {
+        // processMessage only touches the message cache, which needs no plugin
+        configManager = new ConfigManager(null);
+        translatedWelcome = ConfigManager.translateColors(WELCOME_MESSAGE);
+        translatedSuccess = ConfigManager.translateColors(SUCCESS_MESSAGE);
+        successTemplate = MessageTemplate.compile(translatedSuccess, "%reward_amount%", "%reward_display%");
+        welcomeTemplate = ComponentTemplate.compile(translatedWelcome, "%target_name%", "%player_name%");
+    }
+
+    /**
+     * Hex and legacy translation of one line, as done once per message at config load.
+     */
+    @Benchmark
+    public String translateColors() {
+        return ConfigManager.translateColors(FIRST_JOIN_LINE);
+    }
+
+    /**
+     * Translation through the message cache, as hard-coded command messages use it.
+     */
+    @Benchmark
+    public String processMessageCached() {
+        return configManager.processMessage(FIRST_JOIN_LINE);
+    }
+
+    @Benchmark
+    public String renderMessageTemplate() {
+        return successTemplate.render("100.0", "coins");
+    }
+
+    @Benchmark
+    public String replacePlaceholders() {
+        return translatedSuccess.replace("%reward_amount%", "100.0").replace("%reward_display%", "coins");
+    }
+
+    @Benchmark
+    public Component renderComponentTemplate() {
+        return welcomeTemplate.render(targetName, playerName);
+    }
+
+    /**
+     * Replacing placeholders in the string and parsing the legacy codes on every broadcast.
+     */
+    @Benchmark
+    public Component replaceAndDeserialize() {
+        return LegacyComponentSerializer.legacySection().deserialize(
+                translatedWelcome.replace("%target_name%", targetName).replace("%player_name%", playerName)
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package carnage.playerWelcomer.benchmarks;
+
+import carnage.playerWelcomer.util.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimiter#tryAcquire(UUID)} under contention: every thread hammering one shared
+ * bucket, and every thread on its own player as in normal use. The limiter is configured
+ * with a large burst so most calls succeed and take the CAS path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+        public final RateLimiter limiter = new RateLimiter(RateLimiter.MAX_CAPACITY, 1L);
+        public final UUID sharedPlayer = UUID.randomUUID();
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        public UUID playerId;
+
+        @Setup
+        public void setUp() {
+            playerId = UUID.randomUUID();
+        }
+    }
+
+    @Benchmark
+    public boolean sharedPlayer(Limiter state) {
+        return state.limiter.tryAcquire(state.sharedPlayer);
+    }
+
+    @Benchmark
+    public boolean playerPerThread(Limiter state, Player player) {
+        return state.limiter.tryAcquire(player.playerId);
+    }
+}
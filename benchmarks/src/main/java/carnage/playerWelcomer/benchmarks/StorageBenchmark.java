@@ -0,0 +1,132 @@
+package carnage.playerWelcomer.benchmarks;
+
+import carnage.playerWelcomer.storage.SqliteWelcomeStorage;
+import carnage.playerWelcomer.storage.StorageException;
+import carnage.playerWelcomer.storage.WelcomeRecord;
+import carnage.playerWelcomer.util.UuidSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * The two halves of {@code DataManager.isNewPlayer} and of storing a welcome, against a
+ * SQLite file in a temporary directory. DataManager itself needs a running plugin, so the
+ * storage backend and the in-memory index it delegates to are measured directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+    private static final int LOOKUP_KEYS = 1_024;
+
+    @Param({"10000"})
+    public int welcomedPlayers;
+
+    @Param({"1", "64"})
+    public int batchSize;
+
+    private Path directory;
+    private SqliteWelcomeStorage storage;
+    private UuidSet index;
+    private UUID[] welcomed;
+    private UUID[] unknown;
+    private long joinCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, StorageException {
+        directory = Files.createTempDirectory("playerwelcomer-bench");
+        Logger logger = Logger.getLogger("PlayerWelcomer-Benchmark");
+        logger.setLevel(java.util.logging.Level.WARNING);
+
+        storage = new SqliteWelcomeStorage(directory.resolve("playerdata.db").toFile(), logger, 2, 1_024, 5_000);
+        storage.open();
+
+        List<WelcomeRecord> seed = new ArrayList<>(welcomedPlayers);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < welcomedPlayers; i++) {
+            seed.add(new WelcomeRecord(UUID.randomUUID(), now, ++joinCount));
+        }
+        storage.saveWelcomes(seed).join();
+        index = storage.loadWelcomedPlayers();
+
+        welcomed = new UUID[LOOKUP_KEYS];
+        unknown = new UUID[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            welcomed[i] = seed.get(ThreadLocalRandom.current().nextInt(seed.size())).playerId();
+            unknown[i] = UUID.randomUUID();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        storage.close(5_000L);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static UUID pick(UUID[] keys) {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    /**
+     * The main-thread path: a miss in the in-memory index is final on local storage.
+     */
+    @Benchmark
+    public boolean indexLookup() {
+        return index.contains(pick(unknown));
+    }
+
+    /**
+     * Confirming a miss against the database, as shared backends do.
+     */
+    @Benchmark
+    public boolean databaseLookupMiss() throws StorageException {
+        return storage.isWelcomed(pick(unknown));
+    }
+
+    @Benchmark
+    public boolean databaseLookupHit() throws StorageException {
+        return storage.isWelcomed(pick(welcomed));
+    }
+
+    /**
+     * One write-behind flush of {@code batchSize} new welcomes, in one transaction.
+     */
+    @Benchmark
+    public long saveBatch() {
+        List<WelcomeRecord> batch = new ArrayList<>(batchSize);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new WelcomeRecord(UUID.randomUUID(), now, ++joinCount));
+        }
+        return storage.saveWelcomes(batch).join();
+    }
+}
@@ -1,13 +1,20 @@
 package carnage.playerWelcomer;
 
 import carnage.playerWelcomer.commands.ReloadCommand;
+import carnage.playerWelcomer.commands.StatsCommand;
 import carnage.playerWelcomer.commands.WelcomeCommand;
 import carnage.playerWelcomer.listeners.PlayerJoinListener;
+import carnage.playerWelcomer.managers.AnnouncementManager;
 import carnage.playerWelcomer.managers.ConfigManager;
 import carnage.playerWelcomer.managers.DataManager;
 import carnage.playerWelcomer.managers.RewardManager;
+import carnage.playerWelcomer.metrics.CountingScheduler;
+import carnage.playerWelcomer.metrics.MainThreadProfiler;
+import carnage.playerWelcomer.metrics.MetricsRegistry;
+import carnage.playerWelcomer.metrics.PrometheusExporter;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitScheduler;
+
+import java.io.File;
 import java.util.logging.Logger;
 
 /**
@@ -18,8 +25,12 @@ public final class PlayerWelcomer extends JavaPlugin {
     private ConfigManager configManager;
     private DataManager dataManager;
     private RewardManager rewardManager;
+    private AnnouncementManager announcementManager;
+    private MetricsRegistry metrics;
+    private MainThreadProfiler mainThreadProfiler;
+    private PrometheusExporter prometheusExporter;
     private Logger logger;
-    private BukkitScheduler scheduler;
+    private CountingScheduler scheduler;
 
     @Override
     public void onEnable() {
@@ -33,6 +44,7 @@ public final class PlayerWelcomer extends JavaPlugin {
             return;
         }
 
+        initializeDataManager();
         validateRewardSystem();
         registerComponents();
 
@@ -55,11 +67,12 @@ public final class PlayerWelcomer extends JavaPlugin {
      */
     private void initializeComponents() {
         logger = getLogger();
-        scheduler = getServer().getScheduler();
+        metrics = new MetricsRegistry();
+        scheduler = new CountingScheduler(getServer().getScheduler(), metrics);
+        mainThreadProfiler = new MainThreadProfiler(getServer(), metrics);
 
         try {
             configManager = new ConfigManager(this);
-            dataManager = new DataManager(this);
             rewardManager = new RewardManager(this);
         } catch (Exception e) {
             logger.severe("Failed to initialize components: " + e.getMessage());
@@ -67,6 +80,18 @@ public final class PlayerWelcomer extends JavaPlugin {
         }
     }
 
+    /**
+     * Initializes the data manager, which sizes its database pool from the loaded configuration.
+     */
+    private void initializeDataManager() {
+        try {
+            dataManager = new DataManager(this);
+        } catch (Exception e) {
+            logger.severe("Failed to initialize data manager: " + e.getMessage());
+            throw new RuntimeException("Data manager initialization failed", e);
+        }
+    }
+
     /**
      * Loads and validates the configuration.
      * @return true if successful, false otherwise
@@ -112,6 +137,8 @@ public final class PlayerWelcomer extends JavaPlugin {
      * Registers all event listeners and commands.
      */
     private void registerComponents() {
+        announcementManager = new AnnouncementManager(this);
+
         // Register event listeners
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
 
@@ -122,6 +149,10 @@ public final class PlayerWelcomer extends JavaPlugin {
             logger.info("First-join messages are disabled; only join times will be recorded");
         }
 
+        // Stats are available even when the welcome command is disabled
+        getCommand("welcomestats").setExecutor(new StatsCommand(this));
+        startPrometheusExport();
+
         // Register commands if welcome command is enabled
         if (configManager.isWelcomeCommandEnabled()) {
             registerCommands();
@@ -143,6 +174,23 @@ public final class PlayerWelcomer extends JavaPlugin {
         }
     }
 
+    /**
+     * Starts dumping metrics to a Prometheus text file, if enabled.
+     */
+    private void startPrometheusExport() {
+        if (!configManager.isMetricsPrometheusFileEnabled()) {
+            return;
+        }
+
+        prometheusExporter = new PrometheusExporter(
+                metrics, new File(getDataFolder(), "metrics.prom").toPath(), logger
+        );
+        long interval = configManager.getMetricsPrometheusIntervalSeconds() * 20L;
+        scheduler.runTaskTimerAsynchronously(this, prometheusExporter::export, interval, interval);
+        logger.info("Writing Prometheus metrics to metrics.prom every "
+                + configManager.getMetricsPrometheusIntervalSeconds() + " seconds");
+    }
+
     /**
      * Properly shuts down all plugin components.
      */
@@ -152,17 +200,19 @@ public final class PlayerWelcomer extends JavaPlugin {
             scheduler.cancelTasks(this);
         }
 
-        // Shutdown data manager (saves data and stops cleanup tasks)
+        // Shutdown data manager (drains pending welcomes and closes the storage)
         if (dataManager != null) {
             try {
                 dataManager.shutdown();
-                dataManager.saveDataAsync();
-                // Give it a moment to save
-                Thread.sleep(100);
             } catch (Exception e) {
                 logger.warning("Error during data manager shutdown: " + e.getMessage());
             }
         }
+
+        // Final dump including the shutdown flush
+        if (prometheusExporter != null) {
+            prometheusExporter.export();
+        }
     }
 
     /**
@@ -185,11 +235,23 @@ public final class PlayerWelcomer extends JavaPlugin {
         return rewardManager;
     }
 
+    public AnnouncementManager getAnnouncementManager() {
+        return announcementManager;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public MainThreadProfiler getMainThreadProfiler() {
+        return mainThreadProfiler;
+    }
+
     public Logger getPluginLogger() {
         return logger;
     }
 
-    public BukkitScheduler getScheduler() {
+    public CountingScheduler getScheduler() {
         return scheduler;
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package carnage.playerWelcomer.commands;
 
 import carnage.playerWelcomer.PlayerWelcomer;
+import carnage.playerWelcomer.metrics.Counter;
+import carnage.playerWelcomer.metrics.MetricsRegistry;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.command.Command;
@@ -18,15 +20,24 @@ public class ReloadCommand implements CommandExecutor {
     private static final Component RELOAD_SUCCESS = Component.text("Configuration and data reloaded successfully!", NamedTextColor.GREEN);
 
     private final PlayerWelcomer plugin;
+    private final Counter deniedReloads;
+    private final Counter successfulReloads;
+    private final Counter failedReloads;
 
     public ReloadCommand(PlayerWelcomer plugin) {
         this.plugin = plugin;
+        MetricsRegistry metrics = plugin.getMetrics();
+        String help = "Commands run by command and outcome";
+        this.deniedReloads = metrics.counter("playerwelcomer_commands_total", help, "command", "welcomereload", "outcome", "denied");
+        this.successfulReloads = metrics.counter("playerwelcomer_commands_total", help, "command", "welcomereload", "outcome", "success");
+        this.failedReloads = metrics.counter("playerwelcomer_commands_total", help, "command", "welcomereload", "outcome", "failure");
     }
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Check permission
         if (!sender.hasPermission("playerwelcomer.admin")) {
+            deniedReloads.increment();
             sender.sendMessage(NO_PERMISSION);
             return true;
         }
@@ -48,9 +59,11 @@ public class ReloadCommand implements CommandExecutor {
         try {
             // Reload configuration
             plugin.getConfigManager().loadConfig();
+            plugin.getDataManager().applySettings();
 
             // Reset data (this clears all runtime data)
             plugin.getDataManager().resetDataAsync();
+            successfulReloads.increment();
 
             // Send success message on main thread
             plugin.getScheduler().runTask(plugin, () -> {
@@ -59,6 +72,7 @@ public class ReloadCommand implements CommandExecutor {
             });
 
         } catch (Exception e) {
+            failedReloads.increment();
             // Handle errors gracefully
             Component errorMessage = Component.text("Failed to reload: " + e.getMessage(), NamedTextColor.RED);
             Component detailsMessage = Component.text("Check console for details.", NamedTextColor.RED);
@@ -0,0 +1,149 @@
+package carnage.playerWelcomer.commands;
+
+import carnage.playerWelcomer.PlayerWelcomer;
+import carnage.playerWelcomer.metrics.Histogram;
+import carnage.playerWelcomer.metrics.MainThreadProfiler;
+import carnage.playerWelcomer.metrics.MetricsRegistry;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Handles the /welcomestats command, listing every counter and timer of the plugin.
+ * An optional argument only shows metrics whose name contains it.
+ * {@code /welcomestats mainthread [ticks]} instead breaks down the plugin's main-thread time
+ * per operation over the recent ticks.
+ */
+public class StatsCommand implements CommandExecutor {
+    private static final Component NO_PERMISSION = Component.text("You lack permission to use this command!", NamedTextColor.RED);
+    private static final Component HEADER = Component.text("PlayerWelcomer metrics", NamedTextColor.GOLD);
+    private static final Component NO_MATCHES = Component.text("No metrics match that filter.", NamedTextColor.GRAY);
+    private static final Component MAIN_THREAD_HEADER = Component.text("PlayerWelcomer main-thread time", NamedTextColor.GOLD);
+    private static final Component INVALID_TICKS = Component.text("Usage: /welcomestats mainthread [ticks]", NamedTextColor.RED);
+    private static final String METRIC_PREFIX = "playerwelcomer_";
+    private static final String MAIN_THREAD = "mainthread";
+
+    private final PlayerWelcomer plugin;
+
+    public StatsCommand(PlayerWelcomer plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("playerwelcomer.admin")) {
+            sender.sendMessage(NO_PERMISSION);
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase(MAIN_THREAD)) {
+            sendMainThreadReport(sender, args);
+            return true;
+        }
+
+        String filter = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "";
+        List<Component> lines = new ArrayList<>();
+        plugin.getMetrics().visit(new MetricsRegistry.Visitor() {
+            @Override
+            public void family(String name, String help, MetricsRegistry.Type type) {
+            }
+
+            @Override
+            public void counter(String name, String labels, long value) {
+                if (matches(name)) {
+                    lines.add(line(name, labels, String.valueOf(value)));
+                }
+            }
+
+            @Override
+            public void timer(String name, String labels, Histogram.Snapshot snapshot) {
+                if (matches(name)) {
+                    lines.add(line(name, labels, String.format(Locale.ROOT,
+                            "n=%d mean=%s p50=%s p99=%s max=%s",
+                            snapshot.count(), millis((long) snapshot.mean()),
+                            millis(snapshot.valueAtQuantile(0.5)), millis(snapshot.valueAtQuantile(0.99)),
+                            millis(snapshot.max()))));
+                }
+            }
+
+            private boolean matches(String name) {
+                return filter.isEmpty() || name.contains(filter);
+            }
+        });
+
+        sender.sendMessage(HEADER);
+        if (lines.isEmpty()) {
+            sender.sendMessage(NO_MATCHES);
+        }
+        for (Component line : lines) {
+            sender.sendMessage(line);
+        }
+        return true;
+    }
+
+    /**
+     * Sends the main-thread time per operation over the requested ticks, the whole history by default.
+     */
+    private void sendMainThreadReport(CommandSender sender, String[] args) {
+        int ticks = MainThreadProfiler.HISTORY_TICKS;
+        if (args.length > 1) {
+            try {
+                ticks = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                ticks = 0;
+            }
+            if (ticks < 1) {
+                sender.sendMessage(INVALID_TICKS);
+                return;
+            }
+        }
+
+        MainThreadProfiler.Report report = plugin.getMainThreadProfiler().report(ticks);
+        sender.sendMessage(MAIN_THREAD_HEADER);
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                "Last %d ticks: %s total, active in %d ticks, %s per tick",
+                report.ticks(), millis(report.totalNanos()), report.activeTicks(),
+                millis(report.totalNanos() / report.ticks())), NamedTextColor.GRAY));
+
+        for (MainThreadProfiler.Operation operation : MainThreadProfiler.Operation.values()) {
+            int op = operation.ordinal();
+            if (report.calls()[op] == 0) {
+                continue;
+            }
+            sender.sendMessage(line(operation.label(), "", String.format(Locale.ROOT,
+                    "n=%d total=%s max/tick=%s",
+                    report.calls()[op], millis(report.nanos()[op]), millis(report.maxTickNanos()[op]))));
+        }
+
+        if (report.worstTick() >= 0) {
+            StringBuilder breakdown = new StringBuilder();
+            for (MainThreadProfiler.Operation operation : MainThreadProfiler.Operation.values()) {
+                long nanos = report.worstTickBreakdown()[operation.ordinal()];
+                if (nanos > 0L) {
+                    breakdown.append(breakdown.isEmpty() ? "" : ", ").append(operation.label()).append('=').append(millis(nanos));
+                }
+            }
+            sender.sendMessage(Component.text(String.format(Locale.ROOT, "Worst tick %d: %s (%s)",
+                    report.worstTick(), millis(report.worstTickNanos()), breakdown), NamedTextColor.YELLOW));
+        }
+    }
+
+    private static Component line(String name, String labels, String value) {
+        String shortName = name.startsWith(METRIC_PREFIX) ? name.substring(METRIC_PREFIX.length()) : name;
+        return Component.text()
+                .append(Component.text(shortName, NamedTextColor.YELLOW))
+                .append(Component.text(labels.isEmpty() ? "" : "{" + labels + "}", NamedTextColor.GRAY))
+                .append(Component.text(" " + value, NamedTextColor.WHITE))
+                .build();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+    }
+}
@@ -1,15 +1,18 @@
 package carnage.playerWelcomer.commands;
 
 import carnage.playerWelcomer.PlayerWelcomer;
+import carnage.playerWelcomer.managers.DataManager.WelcomeClaim;
+import carnage.playerWelcomer.metrics.Counter;
+import carnage.playerWelcomer.metrics.MainThreadProfiler;
+import carnage.playerWelcomer.metrics.MetricsRegistry;
+import carnage.playerWelcomer.metrics.Timer;
+import carnage.playerWelcomer.util.RateLimiter;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Handles the /welcome command for welcoming new players with rewards.
@@ -23,38 +26,69 @@ public class WelcomeCommand implements CommandExecutor {
     private static final String WELCOME_EXPIRED = "#FF0000This player's welcome period has expired!";
     private static final String COMMAND_DISABLED = "#FF0000The welcome command is disabled!";
     private static final String REWARD_FAILED = "#FF0000Failed to give reward. Contact an administrator.";
+    private static final String SHUTTING_DOWN = "#FF0000The server is shutting down, welcomes are closed.";
     private static final String RATE_LIMIT = "#FF0000Please slow down! You're using this command too quickly.";
+    private static final long RATE_LIMIT_EVICTION_TICKS = 1200L; // 1 minute
 
     private final PlayerWelcomer plugin;
     private final RateLimiter rateLimiter;
 
+    private final Counter acceptedCommands;
+    private final Counter invalidCommands;
+    private final Counter rateLimitedCommands;
+    private final Counter disabledCommands;
+    private final Timer welcomeTimer;
+
     public WelcomeCommand(PlayerWelcomer plugin) {
         this.plugin = plugin;
-        this.rateLimiter = new RateLimiter(3, 1000L); // 3 commands per second per player
+        MetricsRegistry metrics = plugin.getMetrics();
+        String help = "Commands run by command and outcome";
+        this.acceptedCommands = metrics.counter("playerwelcomer_commands_total", help, "command", "welcome", "outcome", "accepted");
+        this.invalidCommands = metrics.counter("playerwelcomer_commands_total", help, "command", "welcome", "outcome", "invalid");
+        this.rateLimitedCommands = metrics.counter("playerwelcomer_commands_total", help, "command", "welcome", "outcome", "rate_limited");
+        this.disabledCommands = metrics.counter("playerwelcomer_commands_total", help, "command", "welcome", "outcome", "disabled");
+        this.welcomeTimer = metrics.timer("playerwelcomer_welcome_seconds", "Time from a /welcome command to its reward");
+        this.rateLimiter = new RateLimiter(
+                plugin.getConfigManager().getRateLimitMaxCommands(),
+                plugin.getConfigManager().getRateLimitWindowMs()
+        );
+
+        // Drop buckets of players who stopped using the command
+        plugin.getScheduler().runTaskTimerAsynchronously(
+                plugin,
+                rateLimiter::evictIdle,
+                RATE_LIMIT_EVICTION_TICKS,
+                RATE_LIMIT_EVICTION_TICKS
+        );
     }
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Validate sender is a player
+        long start = System.nanoTime();
         if (!(sender instanceof Player player)) {
+            invalidCommands.increment();
             sender.sendMessage(plugin.getConfigManager().processMessage(PLAYER_ONLY));
             return true;
         }
 
         // Validate command arguments
         if (args.length != 1) {
+            invalidCommands.increment();
             player.sendMessage(plugin.getConfigManager().processMessage(USAGE));
             return true;
         }
 
         // Rate limiting check
-        if (!rateLimiter.tryAcquire(player.getUniqueId().toString())) {
+        if (!rateLimiter.tryAcquire(player.getUniqueId())) {
+            rateLimitedCommands.increment();
             player.sendMessage(plugin.getConfigManager().processMessage(RATE_LIMIT));
             return true;
         }
 
         // Check if command is enabled (cached, fast check)
         if (!plugin.getConfigManager().isWelcomeCommandEnabled()) {
+            disabledCommands.increment();
             player.sendMessage(plugin.getConfigManager().processMessage(COMMAND_DISABLED));
             return true;
         }
@@ -62,12 +96,14 @@ public class WelcomeCommand implements CommandExecutor {
         // Get target player (must be on main thread for Bukkit API)
         Player target = plugin.getServer().getPlayer(args[0]);
         if (target == null) {
+            invalidCommands.increment();
             player.sendMessage(plugin.getConfigManager().processMessage(PLAYER_NOT_FOUND));
             return true;
         }
 
         // Validate not welcoming self
         if (target.equals(player)) {
+            invalidCommands.increment();
             player.sendMessage(plugin.getConfigManager().processMessage(SELF_WELCOME));
             return true;
         }
@@ -77,8 +113,9 @@ public class WelcomeCommand implements CommandExecutor {
         final UUID senderId = player.getUniqueId();
         final UUID targetId = target.getUniqueId();
 
-        plugin.getScheduler().runTaskAsynchronously(plugin, () ->
-                processWelcome(player, target, senderId, targetId, targetName));
+        acceptedCommands.increment();
+        plugin.getDataManager().executeAsync(() ->
+                processWelcome(player, target, senderId, targetId, targetName, start));
 
         return true;
     }
@@ -87,23 +124,12 @@ public class WelcomeCommand implements CommandExecutor {
      * Processes the welcome command entirely in async context.
      * Only switches to main thread once for broadcast and reward giving.
      */
-    private void processWelcome(Player sender, Player target, UUID senderId, UUID targetId, String targetName) {
-        // All data checks in async (these are thread-safe)
-        if (!plugin.getDataManager().isNewPlayer(targetId)) {
-            sendMessageAsync(sender, plugin.getConfigManager().getNoNewPlayersMessage());
-            return;
-        }
-
-        if (!plugin.getDataManager().isWithinWelcomeWindow(targetId)) {
-            sendMessageAsync(sender, WELCOME_EXPIRED);
-            return;
-        }
-
-        if (plugin.getDataManager().isOnCooldown(senderId)) {
-            long remaining = plugin.getDataManager().getRemainingCooldown(senderId);
-            String cooldownMsg = plugin.getConfigManager().getCooldownMessage()
-                    .replace("%seconds%", String.valueOf(remaining));
-            sendMessageAsync(sender, cooldownMsg);
+    private void processWelcome(Player sender, Player target, UUID senderId, UUID targetId, String targetName,
+                                long startNanos) {
+        // Resolve the winner in memory; only one welcomer per new player gets past this
+        WelcomeClaim claim = plugin.getDataManager().tryClaimWelcome(targetId, senderId);
+        if (claim != WelcomeClaim.CLAIMED) {
+            sendClaimRejected(sender, senderId, claim);
             return;
         }
 
@@ -113,41 +139,55 @@ public class WelcomeCommand implements CommandExecutor {
         double rewardAmount = plugin.getConfigManager().getWelcomeRewardAmount();
         String crateKeyName = plugin.getConfigManager().getWelcomeCrateKeyName();
 
-        // Update data (thread-safe operations)
-        plugin.getDataManager().addWelcomedPlayer(targetId);
-        plugin.getDataManager().setCooldown(senderId);
-
         // Switch to main thread ONCE for broadcast and reward
         plugin.getScheduler().runTask(plugin, () ->
-                executeWelcomeSync(sender, target, senderId, rewardType, currencyType, rewardAmount, crateKeyName));
+                executeWelcomeSync(sender, target, senderId, rewardType, currencyType, rewardAmount, crateKeyName, startNanos));
+    }
+
+    /**
+     * Tells the sender why their welcome was not accepted.
+     */
+    private void sendClaimRejected(Player sender, UUID senderId, WelcomeClaim claim) {
+        switch (claim) {
+            case ALREADY_WELCOMED -> sendProcessedAsync(sender, plugin.getConfigManager().getNoNewPlayersMessage());
+            case WINDOW_EXPIRED -> sendMessageAsync(sender, WELCOME_EXPIRED);
+            case SHUTTING_DOWN -> sendMessageAsync(sender, SHUTTING_DOWN);
+            case ON_COOLDOWN -> {
+                long remaining = plugin.getDataManager().getRemainingCooldown(senderId);
+                sendProcessedAsync(sender, plugin.getConfigManager().getCooldownMessage().render(String.valueOf(remaining)));
+            }
+            default -> throw new IllegalArgumentException("Not a rejection: " + claim);
+        }
     }
 
     /**
      * Executes welcome actions that require main thread (broadcast, rewards).
+     * Records the time since the command was run once the reward is handed out.
      */
     private void executeWelcomeSync(Player sender, Player target, UUID senderId,
                                     String rewardType, String currencyType,
-                                    double rewardAmount, String crateKeyName) {
-        // Broadcast welcome message using Adventure API
-        String message = plugin.getConfigManager().getWelcomeMessage()
-                .replace("%target_name%", target.getName())
-                .replace("%player_name%", sender.getName());
+                                    double rewardAmount, String crateKeyName, long startNanos) {
+        MainThreadProfiler profiler = plugin.getMainThreadProfiler();
 
-        // Use Adventure API for modern message broadcasting
-        net.kyori.adventure.text.Component component =
-                net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer.legacySection().deserialize(message);
-        plugin.getServer().broadcast(component);
+        // Broadcast welcome message using Adventure API
+        long broadcastStart = System.nanoTime();
+        plugin.getServer().broadcast(
+                plugin.getConfigManager().getWelcomeMessage().render(target.getName(), sender.getName())
+        );
+        profiler.record(MainThreadProfiler.Operation.WELCOME_BROADCAST, broadcastStart);
 
         // Give reward
+        long rewardStart = System.nanoTime();
         boolean success = plugin.getRewardManager().giveReward(
                 sender, rewardType, currencyType, rewardAmount, crateKeyName);
+        profiler.record(MainThreadProfiler.Operation.REWARD_DISPATCH, rewardStart);
+        welcomeTimer.recordSince(startNanos);
 
         // Send result message
         if (success) {
             String rewardDisplay = plugin.getRewardManager().getRewardDisplay(rewardType, currencyType, crateKeyName);
-            String successMsg = plugin.getConfigManager().getWelcomeSuccessMessage(rewardType)
-                    .replace("%reward_amount%", String.valueOf((int) rewardAmount))
-                    .replace("%reward_display%", rewardDisplay);
+            String successMsg = plugin.getConfigManager().getWelcomeSuccessMessage()
+                    .render(String.valueOf((int) rewardAmount), rewardDisplay);
             sender.sendMessage(successMsg);
         } else {
             sender.sendMessage(plugin.getConfigManager().processMessage(REWARD_FAILED));
@@ -158,37 +198,13 @@ public class WelcomeCommand implements CommandExecutor {
      * Sends a message to a player, switching to main thread if needed.
      */
     private void sendMessageAsync(Player player, String message) {
-        String processed = plugin.getConfigManager().processMessage(message);
-        plugin.getScheduler().runTask(plugin, () -> player.sendMessage(processed));
+        sendProcessedAsync(player, plugin.getConfigManager().processMessage(message));
     }
 
     /**
-     * Simple rate limiter to prevent command spam.
+     * Sends a message whose color codes are already translated, switching to main thread if needed.
      */
-    private static class RateLimiter {
-        private final ConcurrentHashMap<String, Queue<Long>> requests = new ConcurrentHashMap<>();
-        private final int maxRequests;
-        private final long windowMs;
-
-        public RateLimiter(int maxRequests, long windowMs) {
-            this.maxRequests = maxRequests;
-            this.windowMs = windowMs;
-        }
-
-        public boolean tryAcquire(String key) {
-            long now = System.currentTimeMillis();
-            Queue<Long> timestamps = requests.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
-
-            // Remove expired timestamps
-            timestamps.removeIf(time -> now - time > windowMs);
-
-            // Check if limit exceeded
-            if (timestamps.size() >= maxRequests) {
-                return false;
-            }
-
-            timestamps.offer(now);
-            return true;
-        }
+    private void sendProcessedAsync(Player player, String processed) {
+        plugin.getScheduler().runTask(plugin, () -> player.sendMessage(processed));
     }
 }
\ No newline at end of file
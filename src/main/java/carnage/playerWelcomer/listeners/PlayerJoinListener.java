@@ -1,12 +1,13 @@
 package carnage.playerWelcomer.listeners;
 
 import carnage.playerWelcomer.PlayerWelcomer;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import carnage.playerWelcomer.managers.DataManager;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 
+import java.util.UUID;
+
 /**
  * Listens for player join events and handles first-join messages.
  * Uses modern Adventure API for text components.
@@ -20,37 +21,33 @@ public class PlayerJoinListener implements Listener {
 
     /**
      * Handles player join events, broadcasting a first-join message for new players.
-     * Empty lines are rendered as blank lines in the chat.
+     * Decided inline from the in-memory index: returning players cost no scheduler
+     * submission, and new players are only queued for the next announcement window.
+     * Shared storage needs one async lookup to confirm a new player.
      * @param event the player join event
      */
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        plugin.getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getDataManager().recordJoinTime(event.getPlayer().getUniqueId());
-
-            // Only show first-join message if enabled
-            if (!plugin.getConfigManager().isFirstJoinMessageEnabled()) {
-                return;
-            }
-
-            if (!plugin.getDataManager().isNewPlayer(event.getPlayer().getUniqueId())) {
-                return;
+        UUID playerId = event.getPlayer().getUniqueId();
+        DataManager dataManager = plugin.getDataManager();
+        dataManager.recordJoinTime(playerId);
+
+        // Only announce players missing from the index, and only if enabled
+        if (!plugin.getConfigManager().isFirstJoinMessageEnabled() || dataManager.isKnownWelcomed(playerId)) {
+            return;
+        }
+
+        String playerName = event.getPlayer().getName();
+        if (!dataManager.isStorageShared()) {
+            plugin.getAnnouncementManager().announce(playerName);
+            return;
+        }
+
+        // Another server may have welcomed the player, which only the database knows
+        dataManager.executeAsync(() -> {
+            if (dataManager.isNewPlayer(playerId)) {
+                plugin.getAnnouncementManager().announce(playerName);
             }
-
-            String[] messages = plugin.getConfigManager().getFirstJoinMessage();
-
-            // Schedule broadcast on main thread
-            plugin.getScheduler().runTask(plugin, () -> {
-                for (String message : messages) {
-                    String formattedMessage = message
-                            .replace("%player_name%", event.getPlayer().getName())
-                            .replace("%unique_join_count%", String.valueOf(plugin.getDataManager().getUniqueJoinCount() + 1));
-
-                    // Convert legacy color codes to Adventure Component
-                    Component component = LegacyComponentSerializer.legacySection().deserialize(formattedMessage);
-                    plugin.getServer().broadcast(component);
-                }
-            });
         });
     }
 }
\ No newline at end of file
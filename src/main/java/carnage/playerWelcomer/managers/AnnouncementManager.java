@@ -0,0 +1,125 @@
+package carnage.playerWelcomer.managers;
+
+import carnage.playerWelcomer.PlayerWelcomer;
+import carnage.playerWelcomer.metrics.MainThreadProfiler;
+import carnage.playerWelcomer.util.ComponentTemplate;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces first-join announcements. New players are queued from any thread and announced
+ * together on the main thread once per aggregation window, so a join storm costs one
+ * scheduled task per window rather than one per player. Up to the storm threshold each
+ * player still gets the regular banner; above it a single combined message names the
+ * first few players and counts the rest.
+ */
+public class AnnouncementManager {
+    private final PlayerWelcomer plugin;
+    private final ConcurrentLinkedQueue<String> pendingNames = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    public AnnouncementManager(PlayerWelcomer plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queues a first-join announcement for the player. Thread-safe.
+     */
+    public void announce(String playerName) {
+        pendingNames.offer(playerName);
+        if (drainScheduled.compareAndSet(false, true)) {
+            plugin.getScheduler().runTaskLater(
+                    plugin, this::drain, plugin.getConfigManager().getJoinStormWindowTicks()
+            );
+        }
+    }
+
+    /**
+     * Announces everything queued during the window. Runs on the main thread.
+     */
+    private void drain() {
+        // Re-arm first so players queued while draining schedule the next window
+        drainScheduled.set(false);
+
+        List<String> names = new ArrayList<>();
+        String name;
+        while ((name = pendingNames.poll()) != null) {
+            names.add(name);
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            broadcast(names);
+        } finally {
+            plugin.getMainThreadProfiler().record(MainThreadProfiler.Operation.JOIN_BROADCAST, start);
+        }
+    }
+
+    /**
+     * Broadcasts one banner per player, or the combined message once the storm threshold is passed.
+     */
+    private void broadcast(List<String> names) {
+        ConfigManager config = plugin.getConfigManager();
+        if (names.size() > config.getJoinStormThreshold()) {
+            plugin.getServer().broadcast(
+                    config.getJoinStormMessage().render(formatNames(names, config), String.valueOf(names.size()))
+            );
+            return;
+        }
+
+        ComponentTemplate[] messages = config.getFirstJoinMessage();
+        long joinCount = plugin.getDataManager().getUniqueJoinCount();
+        for (String playerName : names) {
+            announceSingle(messages, playerName, String.valueOf(++joinCount), config.isFirstJoinCombineLines());
+        }
+    }
+
+    /**
+     * Broadcasts the regular first-join banner for one player.
+     */
+    private void announceSingle(ComponentTemplate[] messages, String playerName, String joinCount,
+                                boolean combineLines) {
+        // Pre-parsed components, only the placeholders are filled in
+        Component[] lines = new Component[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            lines[i] = messages[i].render(playerName, joinCount);
+        }
+
+        if (combineLines) {
+            // One broadcast instead of one per line
+            plugin.getServer().broadcast(Component.join(JoinConfiguration.newlines(), lines));
+        } else {
+            for (Component line : lines) {
+                plugin.getServer().broadcast(line);
+            }
+        }
+    }
+
+    /**
+     * Lists the first names and summarizes the rest, e.g. "A, B, C and 12 others".
+     */
+    private static String formatNames(List<String> names, ConfigManager config) {
+        int shown = Math.min(names.size(), config.getJoinStormMaxNames());
+        StringBuilder builder = new StringBuilder(shown * 18);
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(names.get(i));
+        }
+
+        int others = names.size() - shown;
+        if (others > 0) {
+            builder.append(config.getJoinStormOthers().render(String.valueOf(others)));
+        }
+        return builder.toString();
+    }
+}
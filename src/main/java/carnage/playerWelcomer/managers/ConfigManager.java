@@ -1,7 +1,9 @@
 package carnage.playerWelcomer.managers;
 
 import carnage.playerWelcomer.PlayerWelcomer;
-import net.md_5.bungee.api.ChatColor;
+import carnage.playerWelcomer.util.ComponentTemplate;
+import carnage.playerWelcomer.util.MessageTemplate;
+import carnage.playerWelcomer.util.RateLimiter;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
@@ -9,7 +11,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -19,7 +20,11 @@ import java.util.regex.Pattern;
  */
 public class ConfigManager {
     private static final String CONFIG_FILE_NAME = "config.yml";
-    private static final Pattern HEX_PATTERN = Pattern.compile("#[0-9a-fA-F]{6}");
+    private static final char COLOR_CHAR = '\u00A7';
+    private static final String LEGACY_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+    private static final String DEFAULT_SUCCESS_MESSAGE =
+            "#00FF00You welcomed a new player and received #ADD8E6%reward_amount% %reward_display%!";
+    private static final Pattern TABLE_PREFIX_PATTERN = Pattern.compile("[A-Za-z0-9_]*");
 
     private final PlayerWelcomer plugin;
     private volatile FileConfiguration config;
@@ -27,20 +32,48 @@ public class ConfigManager {
     // Caching for processed messages
     private final ConcurrentHashMap<String, String> messageCache = new ConcurrentHashMap<>(32);
 
-    // Cache for first-join messages (processed once)
-    private volatile String[] cachedFirstJoinMessages;
+    // First-join message lines, parsed into components once per load
+    private volatile ComponentTemplate[] firstJoinMessages;
 
     // Cache for frequently accessed config values
     private volatile boolean welcomeCommandEnabled;
     private volatile boolean firstJoinEnabled;
+    private volatile boolean firstJoinCombineLines;
+    private volatile int joinStormThreshold;
+    private volatile long joinStormWindowTicks;
+    private volatile int joinStormMaxNames;
+    private volatile ComponentTemplate joinStormMessage;
+    private volatile MessageTemplate joinStormOthers;
     private volatile int welcomeCooldown;
+    private volatile int welcomeWindow;
+    private volatile boolean persistWelcomeState;
+    private volatile int rateLimitMaxCommands;
+    private volatile long rateLimitWindowMs;
     private volatile String rewardType;
     private volatile String currencyType;
     private volatile double rewardAmount;
     private volatile String crateKeyName;
-    private volatile String welcomeMessage;
+    private volatile ComponentTemplate welcomeMessage;
+    private volatile MessageTemplate successMessage;
     private volatile String noNewPlayersMessage;
-    private volatile String cooldownMessage;
+    private volatile MessageTemplate cooldownMessage;
+    private volatile int databaseReaderConnections;
+    private volatile int databaseQueueCapacity;
+    private volatile int databaseBusyTimeoutMs;
+    private volatile int databaseWriteBatchSize;
+    private volatile long databaseFlushIntervalTicks;
+    private volatile long databaseShutdownTimeoutMs;
+    private volatile String databaseType;
+    private volatile String mySqlHost;
+    private volatile int mySqlPort;
+    private volatile String mySqlDatabase;
+    private volatile String mySqlUsername;
+    private volatile String mySqlPassword;
+    private volatile String mySqlTablePrefix;
+    private volatile String mySqlProperties;
+    private volatile String mySqlJdbcUrl;
+    private volatile boolean metricsPrometheusFileEnabled;
+    private volatile int metricsPrometheusIntervalSeconds;
 
     public ConfigManager(PlayerWelcomer plugin) {
         this.plugin = plugin;
@@ -60,9 +93,8 @@ public class ConfigManager {
 
         config = YamlConfiguration.loadConfiguration(configFile);
 
-        // Clear caches
+        // Clear cache
         messageCache.clear();
-        cachedFirstJoinMessages = null;
 
         // Load and cache all config values
         loadConfigValues();
@@ -76,28 +108,73 @@ public class ConfigManager {
      */
     private void loadConfigValues() {
         firstJoinEnabled = config.getBoolean("first-join.enabled", false);
+        firstJoinCombineLines = config.getBoolean("first-join.combine-lines", false);
+        joinStormThreshold = config.getInt("first-join.storm.threshold", 5);
+        joinStormWindowTicks = config.getLong("first-join.storm.window-ticks", 1L);
+        joinStormMaxNames = config.getInt("first-join.storm.max-names", 3);
         welcomeCommandEnabled = config.getBoolean("welcome-command.enabled", true);
         welcomeCooldown = config.getInt("welcome-command.cooldown", 60);
+        welcomeWindow = config.getInt("welcome-command.welcome-window", 60);
+        persistWelcomeState = config.getBoolean("welcome-command.persist-state", true);
+        rateLimitMaxCommands = config.getInt("welcome-command.rate-limit.max-commands", 3);
+        rateLimitWindowMs = config.getLong("welcome-command.rate-limit.window-ms", 1000L);
         rewardType = config.getString("welcome-command.reward-type", "currency");
         currencyType = config.getString("welcome-command.reward-currency", "vault");
         rewardAmount = config.getDouble("welcome-command.reward-amount", 100.0);
         crateKeyName = config.getString("welcome-command.crate-key-name", "Test Key");
+        databaseReaderConnections = config.getInt("database.reader-connections", 2);
+        databaseQueueCapacity = config.getInt("database.queue-capacity", 1024);
+        databaseBusyTimeoutMs = config.getInt("database.busy-timeout-ms", 5000);
+        databaseWriteBatchSize = config.getInt("database.write-batch-size", 64);
+        databaseFlushIntervalTicks = config.getLong("database.flush-interval-ticks", 40L);
+        databaseShutdownTimeoutMs = config.getLong("database.shutdown-timeout-ms", 5000L);
+        databaseType = config.getString("database.type", "sqlite").toLowerCase();
+        mySqlHost = config.getString("database.mysql.host", "localhost");
+        mySqlPort = config.getInt("database.mysql.port", 3306);
+        mySqlDatabase = config.getString("database.mysql.database", "playerwelcomer");
+        mySqlUsername = config.getString("database.mysql.username", "root");
+        mySqlPassword = config.getString("database.mysql.password", "");
+        mySqlTablePrefix = config.getString("database.mysql.table-prefix", "pw_");
+        mySqlProperties = config.getString("database.mysql.properties", "");
+        mySqlJdbcUrl = config.getString("database.mysql.jdbc-url", "");
+        metricsPrometheusFileEnabled = config.getBoolean("metrics.prometheus-file", false);
+        metricsPrometheusIntervalSeconds = config.getInt("metrics.prometheus-interval-seconds", 15);
 
         // Pre-process and cache messages
-        welcomeMessage = processMessageInternal(config.getString(
+        welcomeMessage = ComponentTemplate.compile(translateColors(config.getString(
                 "welcome-command.welcome-message",
                 "#00FF00Welcome to the server, #FFFF00%target_name%#00FF00! Welcomed by #FFFF00%player_name%"
-        ));
+        )), "%target_name%", "%player_name%");
+
+        successMessage = MessageTemplate.compile(translateColors(config.getString(
+                "welcome-command.success-message",
+                DEFAULT_SUCCESS_MESSAGE
+        )), "%reward_amount%", "%reward_display%");
 
-        noNewPlayersMessage = processMessageInternal(config.getString(
+        noNewPlayersMessage = translateColors(config.getString(
                 "welcome-command.no-new-players",
                 "#FF0000That player has already been welcomed!"
         ));
 
-        cooldownMessage = processMessageInternal(config.getString(
+        cooldownMessage = MessageTemplate.compile(translateColors(config.getString(
                 "welcome-command.cooldown-message",
                 "#FF0000Please wait %seconds% seconds before using this command again!"
-        ));
+        )), "%seconds%");
+
+        joinStormMessage = ComponentTemplate.compile(translateColors(config.getString(
+                "first-join.storm.message",
+                "#00FF00&lWelcome #FFFF00%players% #808080to the server!"
+        )), "%players%", "%count%");
+
+        // Rendered into the %players% slot as plain text, so no color processing
+        joinStormOthers = MessageTemplate.compile(config.getString(
+                "first-join.storm.others",
+                " and %count% others"
+        ), "%count%");
+
+        firstJoinMessages = Arrays.stream(getFirstJoinMessageRaw())
+                .map(line -> ComponentTemplate.compile(translateColors(line), "%player_name%", "%unique_join_count%"))
+                .toArray(ComponentTemplate[]::new);
 
         plugin.getPluginLogger().info("First-join message enabled: " + firstJoinEnabled);
     }
@@ -109,7 +186,12 @@ public class ConfigManager {
         if (firstJoinEnabled) {
             validateFirstJoinMessageLines();
         }
+        validateJoinStormSettings();
+        validateWelcomeTimings();
         validateRewardSettings();
+        validateRateLimitSettings();
+        validateDatabaseSettings();
+        validateMetricsSettings();
     }
 
     private void validateFirstJoinMessageLines() {
@@ -142,6 +224,115 @@ public class ConfigManager {
         }
     }
 
+    private void validateJoinStormSettings() {
+        if (joinStormThreshold < 1) {
+            throw new RuntimeException("first-join.storm.threshold must be at least 1: " + joinStormThreshold);
+        }
+
+        if (joinStormWindowTicks < 1) {
+            throw new RuntimeException("first-join.storm.window-ticks must be at least 1: " + joinStormWindowTicks);
+        }
+
+        if (joinStormMaxNames < 0) {
+            throw new RuntimeException("first-join.storm.max-names cannot be negative: " + joinStormMaxNames);
+        }
+    }
+
+    private void validateWelcomeTimings() {
+        if (welcomeCooldown < 0) {
+            throw new RuntimeException("welcome-command.cooldown cannot be negative: " + welcomeCooldown);
+        }
+
+        if (welcomeWindow < 1) {
+            throw new RuntimeException("welcome-command.welcome-window must be at least 1: " + welcomeWindow);
+        }
+    }
+
+    private void validateRateLimitSettings() {
+        if (rateLimitMaxCommands < 1 || rateLimitMaxCommands > RateLimiter.MAX_CAPACITY) {
+            throw new RuntimeException(
+                    "welcome-command.rate-limit.max-commands must be between 1 and " + RateLimiter.MAX_CAPACITY
+                            + ": " + rateLimitMaxCommands
+            );
+        }
+
+        if (rateLimitWindowMs < 1) {
+            throw new RuntimeException("welcome-command.rate-limit.window-ms must be at least 1: " + rateLimitWindowMs);
+        }
+    }
+
+    private void validateDatabaseSettings() {
+        if (databaseReaderConnections < 1) {
+            throw new RuntimeException("database.reader-connections must be at least 1: " + databaseReaderConnections);
+        }
+
+        if (databaseQueueCapacity < 1) {
+            throw new RuntimeException("database.queue-capacity must be at least 1: " + databaseQueueCapacity);
+        }
+
+        if (databaseBusyTimeoutMs < 0) {
+            throw new RuntimeException("database.busy-timeout-ms cannot be negative: " + databaseBusyTimeoutMs);
+        }
+
+        if (databaseWriteBatchSize < 1) {
+            throw new RuntimeException("database.write-batch-size must be at least 1: " + databaseWriteBatchSize);
+        }
+
+        if (databaseFlushIntervalTicks < 1) {
+            throw new RuntimeException("database.flush-interval-ticks must be at least 1: " + databaseFlushIntervalTicks);
+        }
+
+        if (databaseShutdownTimeoutMs < 0) {
+            throw new RuntimeException("database.shutdown-timeout-ms cannot be negative: " + databaseShutdownTimeoutMs);
+        }
+
+        if (databaseType.equals("mysql")) {
+            validateMySqlSettings();
+        } else if (!databaseType.equals("sqlite") && !databaseType.equals("journal")) {
+            throw new RuntimeException("database.type must be sqlite, mysql or journal: " + databaseType);
+        }
+    }
+
+    private void validateMetricsSettings() {
+        if (metricsPrometheusIntervalSeconds < 1) {
+            throw new RuntimeException(
+                    "metrics.prometheus-interval-seconds must be at least 1: " + metricsPrometheusIntervalSeconds
+            );
+        }
+    }
+
+    private void validateMySqlSettings() {
+        // The URL replaces host, port, database and properties
+        if (!mySqlJdbcUrl.isEmpty()) {
+            if (!mySqlJdbcUrl.startsWith("jdbc:")) {
+                throw new RuntimeException("database.mysql.jdbc-url must start with jdbc: " + mySqlJdbcUrl);
+            }
+        } else {
+            validateMySqlAddress();
+        }
+
+        // The prefix is spliced into table names, so it must not carry SQL
+        if (!TABLE_PREFIX_PATTERN.matcher(mySqlTablePrefix).matches()) {
+            throw new RuntimeException(
+                    "database.mysql.table-prefix may only contain letters, digits and underscores: " + mySqlTablePrefix
+            );
+        }
+    }
+
+    private void validateMySqlAddress() {
+        if (mySqlHost == null || mySqlHost.trim().isEmpty()) {
+            throw new RuntimeException("database.mysql.host is missing or empty");
+        }
+
+        if (mySqlPort < 1 || mySqlPort > 65535) {
+            throw new RuntimeException("database.mysql.port is out of range: " + mySqlPort);
+        }
+
+        if (mySqlDatabase == null || mySqlDatabase.trim().isEmpty()) {
+            throw new RuntimeException("database.mysql.database is missing or empty");
+        }
+    }
+
     private void validateCurrencySettings() {
         if (currencyType == null || currencyType.trim().isEmpty()) {
             throw new RuntimeException(
@@ -179,37 +370,83 @@ public class ConfigManager {
         }
 
         // Try to get from cache first
-        return messageCache.computeIfAbsent(message, this::processMessageInternal);
+        return messageCache.computeIfAbsent(message, ConfigManager::translateColors);
     }
 
     /**
-     * Internal method that actually processes the message.
-     * Uses BungeeCord's ChatColor for hex support (deprecated but functional).
+     * Translates hex and legacy color codes without going through the cache, in a single pass.
+     * {@code #RRGGBB}, {@code &#RRGGBB} and {@code <#RRGGBB>} become the section-sign
+     * {@code xRRGGBB} hex sequence; {@code &} followed by a legacy code, including each part of
+     * an {@code &x&R&R&G&G&B&B} sequence, becomes the section sign and the lowercase code.
+     * A hex color at most doubles its length, so the output goes into a buffer of twice the
+     * input length that is then copied into the result string: two allocations per translated
+     * message. Messages without codes are returned as they are, without allocating.
      */
-    @SuppressWarnings("deprecation")
-    private String processMessageInternal(String message) {
+    public static String translateColors(String message) {
         if (message == null) {
             return "";
         }
+        if (message.indexOf('&') < 0 && message.indexOf('#') < 0) {
+            return message;
+        }
 
-        // First translate hex color codes using BungeeCord's method
-        Matcher matcher = HEX_PATTERN.matcher(message);
-        StringBuffer buffer = new StringBuffer();
+        int length = message.length();
+        char[] out = new char[length * 2];
+        int written = 0;
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            if (c == '#' && isHexColor(message, i + 1)) {
+                written = writeHexColor(message, i + 1, out, written);
+                i += 7;
+            } else if (c == '&' && i + 1 < length && message.charAt(i + 1) == '#' && isHexColor(message, i + 2)) {
+                written = writeHexColor(message, i + 2, out, written);
+                i += 8;
+            } else if (c == '<' && i + 8 < length && message.charAt(i + 1) == '#'
+                    && message.charAt(i + 8) == '>' && isHexColor(message, i + 2)) {
+                written = writeHexColor(message, i + 2, out, written);
+                i += 9;
+            } else if (c == '&' && i + 1 < length && LEGACY_CODES.indexOf(message.charAt(i + 1)) >= 0) {
+                out[written++] = COLOR_CHAR;
+                out[written++] = Character.toLowerCase(message.charAt(i + 1));
+                i += 2;
+            } else {
+                out[written++] = c;
+                i++;
+            }
+        }
+        return new String(out, 0, written);
+    }
 
-        while (matcher.find()) {
-            String hexCode = matcher.group();
-            try {
-                ChatColor color = ChatColor.of(hexCode);
-                matcher.appendReplacement(buffer, color.toString());
-            } catch (IllegalArgumentException e) {
-                // Invalid hex code, leave as is
-                matcher.appendReplacement(buffer, hexCode);
+    /**
+     * Checks for six ASCII hex digits starting at the index. Other Unicode digits, such as
+     * fullwidth ones, are not color codes.
+     */
+    private static boolean isHexColor(String message, int start) {
+        if (start + 6 > message.length()) {
+            return false;
+        }
+        for (int i = start; i < start + 6; i++) {
+            char c = message.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
             }
         }
-        matcher.appendTail(buffer);
+        return true;
+    }
 
-        // Then translate legacy color codes using Bukkit's method
-        return org.bukkit.ChatColor.translateAlternateColorCodes('&', buffer.toString());
+    /**
+     * Writes the six hex digits starting at the index as a section-sign hex color sequence.
+     * @return the new output length
+     */
+    private static int writeHexColor(String message, int start, char[] out, int written) {
+        out[written++] = COLOR_CHAR;
+        out[written++] = 'x';
+        for (int i = start; i < start + 6; i++) {
+            out[written++] = COLOR_CHAR;
+            out[written++] = Character.toLowerCase(message.charAt(i));
+        }
+        return written;
     }
 
     // Fast cached getters for frequently accessed values
@@ -217,6 +454,36 @@ public class ConfigManager {
         return firstJoinEnabled;
     }
 
+    public boolean isFirstJoinCombineLines() {
+        return firstJoinCombineLines;
+    }
+
+    public int getJoinStormThreshold() {
+        return joinStormThreshold;
+    }
+
+    public long getJoinStormWindowTicks() {
+        return joinStormWindowTicks;
+    }
+
+    public int getJoinStormMaxNames() {
+        return joinStormMaxNames;
+    }
+
+    /**
+     * Gets the combined storm announcement. Render with the player list, then the player count.
+     */
+    public ComponentTemplate getJoinStormMessage() {
+        return joinStormMessage;
+    }
+
+    /**
+     * Gets the suffix for players left out of the storm list. Render with their count.
+     */
+    public MessageTemplate getJoinStormOthers() {
+        return joinStormOthers;
+    }
+
     public boolean isWelcomeCommandEnabled() {
         return welcomeCommandEnabled;
     }
@@ -225,6 +492,14 @@ public class ConfigManager {
         return welcomeCooldown;
     }
 
+    public int getWelcomeWindow() {
+        return welcomeWindow;
+    }
+
+    public boolean isPersistWelcomeState() {
+        return persistWelcomeState;
+    }
+
     public String getWelcomeRewardType() {
         return rewardType;
     }
@@ -241,7 +516,10 @@ public class ConfigManager {
         return crateKeyName;
     }
 
-    public String getWelcomeMessage() {
+    /**
+     * Gets the welcome broadcast. Render with the target name, then the welcomer name.
+     */
+    public ComponentTemplate getWelcomeMessage() {
         return welcomeMessage;
     }
 
@@ -249,24 +527,97 @@ public class ConfigManager {
         return noNewPlayersMessage;
     }
 
-    public String getCooldownMessage() {
+    public int getRateLimitMaxCommands() {
+        return rateLimitMaxCommands;
+    }
+
+    public long getRateLimitWindowMs() {
+        return rateLimitWindowMs;
+    }
+
+    /**
+     * Gets the cooldown message. Render with the remaining seconds.
+     */
+    public MessageTemplate getCooldownMessage() {
         return cooldownMessage;
     }
 
+    public int getDatabaseReaderConnections() {
+        return databaseReaderConnections;
+    }
+
+    public int getDatabaseQueueCapacity() {
+        return databaseQueueCapacity;
+    }
+
+    public int getDatabaseBusyTimeoutMs() {
+        return databaseBusyTimeoutMs;
+    }
+
+    public int getDatabaseWriteBatchSize() {
+        return databaseWriteBatchSize;
+    }
+
+    public long getDatabaseFlushIntervalTicks() {
+        return databaseFlushIntervalTicks;
+    }
+
+    public long getDatabaseShutdownTimeoutMs() {
+        return databaseShutdownTimeoutMs;
+    }
+
+    public String getDatabaseType() {
+        return databaseType;
+    }
+
+    public String getMySqlHost() {
+        return mySqlHost;
+    }
+
+    public int getMySqlPort() {
+        return mySqlPort;
+    }
+
+    public String getMySqlDatabase() {
+        return mySqlDatabase;
+    }
+
+    public String getMySqlUsername() {
+        return mySqlUsername;
+    }
+
+    public String getMySqlPassword() {
+        return mySqlPassword;
+    }
+
+    public String getMySqlTablePrefix() {
+        return mySqlTablePrefix;
+    }
+
+    public String getMySqlProperties() {
+        return mySqlProperties;
+    }
+
     /**
-     * Gets the first join messages, processing and caching them on first access.
+     * Gets the JDBC URL that overrides host, port, database and properties, or an empty string.
      */
-    public String[] getFirstJoinMessage() {
-        if (cachedFirstJoinMessages == null) {
-            synchronized (this) {
-                if (cachedFirstJoinMessages == null) {
-                    cachedFirstJoinMessages = Arrays.stream(getFirstJoinMessageRaw())
-                            .map(this::processMessageInternal)
-                            .toArray(String[]::new);
-                }
-            }
-        }
-        return cachedFirstJoinMessages;
+    public String getMySqlJdbcUrl() {
+        return mySqlJdbcUrl;
+    }
+
+    public boolean isMetricsPrometheusFileEnabled() {
+        return metricsPrometheusFileEnabled;
+    }
+
+    public int getMetricsPrometheusIntervalSeconds() {
+        return metricsPrometheusIntervalSeconds;
+    }
+
+    /**
+     * Gets the first join message lines. Render each with the player name, then the join count.
+     */
+    public ComponentTemplate[] getFirstJoinMessage() {
+        return firstJoinMessages;
     }
 
     private String[] getFirstJoinMessageRaw() {
@@ -280,11 +631,10 @@ public class ConfigManager {
         };
     }
 
-    public String getWelcomeSuccessMessage(String rewardType) {
-        String defaultMessage = rewardType.equalsIgnoreCase("crate_key") ?
-                "#00FF00You welcomed a new player and received #ADD8E6%reward_amount% %reward_display%!" :
-                "#00FF00You welcomed a new player and received #ADD8E6%reward_amount% %reward_display%!";
-
-        return processMessage(config.getString("welcome-command.success-message", defaultMessage));
+    /**
+     * Gets the success message for the welcomer. Render with the reward amount, then the reward display.
+     */
+    public MessageTemplate getWelcomeSuccessMessage() {
+        return successMessage;
     }
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package carnage.playerWelcomer.managers;
 
 import carnage.playerWelcomer.PlayerWelcomer;
+import carnage.playerWelcomer.metrics.Counter;
+import carnage.playerWelcomer.metrics.MainThreadProfiler;
+import carnage.playerWelcomer.metrics.MetricsRegistry;
+import carnage.playerWelcomer.metrics.Timer;
 import net.milkbowl.vault.economy.Economy;
 import org.black_ixx.playerpoints.PlayerPoints;
 import org.black_ixx.playerpoints.PlayerPointsAPI;
@@ -30,9 +34,39 @@ public class CurrencyManager implements Listener {
     private boolean isPlayerPointsAvailable;
     private boolean isCoinsEngineAvailable;
 
+    private final DepositMetrics vaultMetrics;
+    private final DepositMetrics playerPointsMetrics;
+    private final DepositMetrics coinsEngineMetrics;
+
     public CurrencyManager(PlayerWelcomer plugin) {
         this.plugin = plugin;
         this.logger = plugin.getPluginLogger();
+        this.vaultMetrics = new DepositMetrics(plugin.getMetrics(), "vault");
+        this.playerPointsMetrics = new DepositMetrics(plugin.getMetrics(), "playerpoints");
+        this.coinsEngineMetrics = new DepositMetrics(plugin.getMetrics(), "coinsengine");
+    }
+
+    /**
+     * Deposit counters and timer of one currency plugin. CoinsEngine currencies share one
+     * label, so the number of series does not grow with the configured currency IDs.
+     */
+    private static final class DepositMetrics {
+        private final Timer timer;
+        private final Counter succeeded;
+        private final Counter failed;
+
+        private DepositMetrics(MetricsRegistry metrics, String currency) {
+            String help = "Currency deposits by currency plugin and result";
+            this.timer = metrics.timer("playerwelcomer_currency_deposit_seconds", "Time to deposit currency", "currency", currency);
+            this.succeeded = metrics.counter("playerwelcomer_currency_deposits_total", help, "currency", currency, "result", "success");
+            this.failed = metrics.counter("playerwelcomer_currency_deposits_total", help, "currency", currency, "result", "failure");
+        }
+
+        private boolean record(long startNanos, boolean success) {
+            timer.recordSince(startNanos);
+            (success ? succeeded : failed).increment();
+            return success;
+        }
     }
 
     /**
@@ -167,10 +201,14 @@ public class CurrencyManager implements Listener {
         // Vault's depositPlayer is already thread-safe and can be called async
         // Run on main thread to be safe with some economy plugins
         plugin.getScheduler().runTask(plugin, () -> {
+            long start = System.nanoTime();
             try {
-                vaultEconomy.depositPlayer(player, amount);
+                vaultMetrics.record(start, vaultEconomy.depositPlayer(player, amount).transactionSuccess());
             } catch (Exception e) {
+                vaultMetrics.record(start, false);
                 logger.severe("Error depositing Vault currency for " + player.getName() + ": " + e.getMessage());
+            } finally {
+                plugin.getMainThreadProfiler().record(MainThreadProfiler.Operation.VAULT_DEPOSIT, start);
             }
         });
         return true;
@@ -186,11 +224,12 @@ public class CurrencyManager implements Listener {
         }
 
         int intAmount = (int) amount; // PlayerPoints uses integers
+        long start = System.nanoTime();
         try {
-            return playerPointsAPI.give(player.getUniqueId(), intAmount);
+            return playerPointsMetrics.record(start, playerPointsAPI.give(player.getUniqueId(), intAmount));
         } catch (Exception e) {
             logger.severe("Error giving PlayerPoints to " + player.getName() + ": " + e.getMessage());
-            return false;
+            return playerPointsMetrics.record(start, false);
         }
     }
 
@@ -216,12 +255,13 @@ public class CurrencyManager implements Listener {
         }
 
         // CoinsEngine API is thread-safe for balance operations
+        long start = System.nanoTime();
         try {
             CoinsEngineAPI.addBalance(player, currency, amount);
-            return true;
+            return coinsEngineMetrics.record(start, true);
         } catch (Exception e) {
             logger.severe("Error adding CoinsEngine currency for " + player.getName() + ": " + e.getMessage());
-            return false;
+            return coinsEngineMetrics.record(start, false);
         }
     }
 
@@ -1,91 +1,210 @@
 package carnage.playerWelcomer.managers;
 
 import carnage.playerWelcomer.PlayerWelcomer;
+import carnage.playerWelcomer.metrics.Counter;
+import carnage.playerWelcomer.metrics.MetricsRegistry;
+import carnage.playerWelcomer.metrics.Timer;
+import carnage.playerWelcomer.storage.JournalWelcomeStorage;
+import carnage.playerWelcomer.storage.MySqlWelcomeStorage;
+import carnage.playerWelcomer.storage.SqliteWelcomeStorage;
+import carnage.playerWelcomer.storage.StateSnapshot;
+import carnage.playerWelcomer.storage.StorageException;
+import carnage.playerWelcomer.storage.WelcomeRecord;
+import carnage.playerWelcomer.storage.WelcomeStorage;
+import carnage.playerWelcomer.storage.WriteBehindQueue;
+import carnage.playerWelcomer.util.ExpiringUuidMap;
+import carnage.playerWelcomer.util.UuidSet;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
-import java.sql.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
 
 /**
- * Manages persistent data for welcomed players using SQLite database.
+ * Manages persistent data for welcomed players.
+ * Persistence goes through a {@link WelcomeStorage} backend selected by {@code database.type}:
+ * local SQLite, a MySQL/MariaDB database shared across servers, or a memory-mapped journal.
+ * Welcomes are buffered write-behind and handed to the backend in batches.
+ * Membership checks and the unique join count are served from memory, loaded once at
+ * startup; on shared backends an index miss is confirmed against the database, since
+ * another server may have welcomed the player since.
+ * Join times and cooldowns are kept in primitive expiring maps driven by timing wheels;
+ * a cleanup tick every second removes exactly the entries whose deadline has passed.
+ * Optionally both are saved to a {@link StateSnapshot} on shutdown and restored on startup,
+ * so a restart does not cut pending welcomes short.
  * Uses thread-safe collections for performance in a multi-threaded environment.
- * Implements automatic cleanup to prevent memory leaks.
  */
 public class DataManager {
-    private static final long WELCOME_WINDOW_MS = 60_000L; // 60 seconds
-    private static final long CLEANUP_INTERVAL_TICKS = 1200L; // 1 minute
-    private static final long COOLDOWN_CLEANUP_THRESHOLD_MS = 300_000L; // 5 minutes
+    private static final long CLEANUP_INTERVAL_TICKS = 20L; // 1 second
+    private static final long EXPIRY_RESOLUTION_MS = 1_000L;
 
     private final PlayerWelcomer plugin;
-    private final File databaseFile;
-    private Connection connection;
+    private WelcomeStorage storage;
+    private WriteBehindQueue<UUID, WelcomeRecord> pendingWelcomes;
 
     // In-memory caches for fast access
-    private final ConcurrentHashMap<UUID, Long> cooldowns;
-    private final ConcurrentHashMap<UUID, Long> joinTimes;
+    private UuidSet welcomedPlayers;
+    private final AtomicLong uniqueJoinCount = new AtomicLong();
+    private final ExpiringUuidMap cooldowns;
+    private final ExpiringUuidMap joinTimes;
+    private final StateSnapshot stateSnapshot;
+    // Players whose join time was restored and who have not joined since the restart
+    private final UuidSet restoredJoins = new UuidSet();
 
     private BukkitTask cleanupTask;
+    private BukkitTask flushTask;
+
+    private final Timer newPlayerCheckTimer;
+    private final Timer batchTimer;
+    private final Counter storageTasks;
+    private final Counter[] claimCounters;
 
     public DataManager(PlayerWelcomer plugin) {
         this.plugin = plugin;
-        this.cooldowns = new ConcurrentHashMap<>();
-        this.joinTimes = new ConcurrentHashMap<>();
-        this.databaseFile = new File(plugin.getDataFolder(), "playerdata.db");
+        MetricsRegistry metrics = plugin.getMetrics();
+        this.newPlayerCheckTimer = metrics.timer("playerwelcomer_new_player_check_seconds", "Time to check whether a player is new");
+        this.batchTimer = metrics.timer("playerwelcomer_storage_batch_seconds", "Time to store a batch of welcomes");
+        this.storageTasks = metrics.counter("playerwelcomer_tasks_scheduled_total", "Tasks scheduled by the plugin", "thread", "storage");
+        this.claimCounters = new Counter[WelcomeClaim.values().length];
+        for (WelcomeClaim claim : WelcomeClaim.values()) {
+            claimCounters[claim.ordinal()] = metrics.counter(
+                    "playerwelcomer_welcome_claims_total", "Welcome claims by result",
+                    "result", claim.name().toLowerCase(Locale.ROOT)
+            );
+        }
+
+        // Entries are only kept for as long as they can matter
+        this.cooldowns = new ExpiringUuidMap(cooldownMs(), EXPIRY_RESOLUTION_MS);
+        this.joinTimes = new ExpiringUuidMap(welcomeWindowMs(), EXPIRY_RESOLUTION_MS);
+        this.stateSnapshot = new StateSnapshot(new File(plugin.getDataFolder(), "welcome-state.bin").toPath());
 
-        initializeDatabase();
+        if (plugin.getConfigManager().isPersistWelcomeState()) {
+            restoreState();
+        }
+        initializeStorage();
         startCleanupTask();
+        startFlushTask();
+    }
+
+    /**
+     * Restores join times and cooldowns saved by the last shutdown. Entries that ran out
+     * while the server was down are skipped. The snapshot is deleted once read.
+     */
+    private void restoreState() {
+        try {
+            StateSnapshot.Contents contents = stateSnapshot.read();
+            if (contents == null) {
+                return;
+            }
+            stateSnapshot.delete();
+
+            long now = System.currentTimeMillis();
+            int restoredJoinTimes = joinTimes.putAll(contents.joinTimes(), now);
+            long[] entries = contents.joinTimes();
+            for (int i = 0; i + 2 < entries.length; i += 3) {
+                if (entries[i + 2] + welcomeWindowMs() > now) {
+                    restoredJoins.add(entries[i], entries[i + 1]);
+                }
+            }
+            int restoredCooldowns = cooldowns.putAll(contents.cooldowns(), now);
+            plugin.getPluginLogger().info(
+                    "Restored " + restoredJoinTimes + " join times and " + restoredCooldowns +
+                            " cooldowns saved " + Math.max(0L, (now - contents.savedAt()) / 1000L) + "s ago"
+            );
+        } catch (IOException e) {
+            // Losing the snapshot only shortens pending welcomes, so never fail startup over it
+            plugin.getPluginLogger().warning("Failed to restore welcome state: " + e.getMessage());
+        }
     }
 
     /**
-     * Initializes the SQLite database and creates tables if they don't exist.
+     * Saves join times and cooldowns for the next startup.
      */
-    private void initializeDatabase() {
+    private void saveState() {
+        try {
+            stateSnapshot.write(joinTimes.toArray(), cooldowns.toArray());
+        } catch (IOException e) {
+            plugin.getPluginLogger().warning("Failed to save welcome state: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the configured storage backend and warms the in-memory state from it.
+     */
+    private void initializeStorage() {
         try {
             // Create data folder if it doesn't exist
             if (!plugin.getDataFolder().exists()) {
                 plugin.getDataFolder().mkdirs();
             }
 
-            // Load SQLite JDBC driver
-            Class.forName("org.sqlite.JDBC");
-
-            // Create connection
-            String url = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
-            connection = DriverManager.getConnection(url);
-
-            // Create tables
-            try (Statement stmt = connection.createStatement()) {
-                // Table for welcomed players
-                stmt.execute(
-                        "CREATE TABLE IF NOT EXISTS welcomed_players (" +
-                                "uuid TEXT PRIMARY KEY, " +
-                                "welcomed_at INTEGER NOT NULL" +
-                                ")"
-                );
-
-                // Table for plugin metadata
-                stmt.execute(
-                        "CREATE TABLE IF NOT EXISTS metadata (" +
-                                "key TEXT PRIMARY KEY, " +
-                                "value TEXT NOT NULL" +
-                                ")"
-                );
-
-                // Initialize unique join count if not exists
-                stmt.execute(
-                        "INSERT OR IGNORE INTO metadata (key, value) VALUES ('unique_join_count', '0')"
-                );
-            }
+            ConfigManager config = plugin.getConfigManager();
+            storage = createStorage(config);
+            storage.open();
+
+            // Warm the in-memory index of welcomed players
+            welcomedPlayers = storage.loadWelcomedPlayers();
+            uniqueJoinCount.set(storage.loadUniqueJoinCount());
 
-            plugin.getPluginLogger().info("SQLite database initialized successfully");
-        } catch (Exception e) {
-            plugin.getPluginLogger().severe("Failed to initialize database: " + e.getMessage());
-            throw new RuntimeException("Database initialization failed", e);
+            pendingWelcomes = new WriteBehindQueue<>(
+                    this::saveBatch, config.getDatabaseWriteBatchSize(), plugin.getPluginLogger()
+            );
+
+            plugin.getPluginLogger().info(
+                    storage.getName() + " storage initialized successfully (" + welcomedPlayers.size() + " welcomed players)"
+            );
+        } catch (StorageException e) {
+            plugin.getPluginLogger().severe("Failed to initialize storage: " + e.getMessage());
+            if (storage != null) {
+                storage.close(plugin.getConfigManager().getDatabaseShutdownTimeoutMs());
+            }
+            throw new RuntimeException("Storage initialization failed", e);
         }
     }
 
+    /**
+     * Creates the backend selected by {@code database.type}.
+     */
+    private WelcomeStorage createStorage(ConfigManager config) {
+        Logger logger = plugin.getPluginLogger();
+        File dataFolder = plugin.getDataFolder();
+
+        return switch (config.getDatabaseType()) {
+            case "mysql" -> new MySqlWelcomeStorage(
+                    config.getMySqlJdbcUrl().isEmpty()
+                            ? MySqlWelcomeStorage.jdbcUrl(config.getMySqlHost(), config.getMySqlPort(),
+                                    config.getMySqlDatabase(), config.getMySqlProperties())
+                            : config.getMySqlJdbcUrl(),
+                    config.getMySqlUsername(),
+                    config.getMySqlPassword(),
+                    config.getMySqlTablePrefix(),
+                    logger,
+                    config.getDatabaseReaderConnections(),
+                    config.getDatabaseQueueCapacity()
+            );
+            case "journal" -> new JournalWelcomeStorage(
+                    new File(dataFolder, "welcomed.journal").toPath(),
+                    logger,
+                    config.getDatabaseQueueCapacity()
+            );
+            default -> new SqliteWelcomeStorage(
+                    new File(dataFolder, "playerdata.db"),
+                    logger,
+                    config.getDatabaseReaderConnections(),
+                    config.getDatabaseQueueCapacity(),
+                    config.getDatabaseBusyTimeoutMs()
+            );
+        };
+    }
+
     /**
      * Starts the automatic cleanup task to prevent memory leaks.
      */
@@ -98,25 +217,28 @@ public class DataManager {
         );
     }
 
+    /**
+     * Starts the timer that flushes buffered welcomes which have not reached the batch size.
+     */
+    private void startFlushTask() {
+        long interval = plugin.getConfigManager().getDatabaseFlushIntervalTicks();
+        flushTask = plugin.getScheduler().runTaskTimerAsynchronously(
+                plugin,
+                pendingWelcomes::flush,
+                interval,
+                interval
+        );
+    }
+
     /**
      * Performs cleanup of expired data to prevent memory leaks.
      */
     private void performCleanup() {
         long now = System.currentTimeMillis();
 
-        // Clean up expired join times
-        long joinTimeExpiry = now - WELCOME_WINDOW_MS;
-        int removedJoinTimes = (int) joinTimes.entrySet().stream()
-                .filter(entry -> entry.getValue() < joinTimeExpiry)
-                .peek(entry -> joinTimes.remove(entry.getKey()))
-                .count();
-
-        // Clean up old cooldowns
-        long cooldownExpiry = now - COOLDOWN_CLEANUP_THRESHOLD_MS;
-        int removedCooldowns = (int) cooldowns.entrySet().stream()
-                .filter(entry -> entry.getValue() < cooldownExpiry)
-                .peek(entry -> cooldowns.remove(entry.getKey()))
-                .count();
+        // Turns the timing wheels; only entries that came due are visited
+        int removedJoinTimes = joinTimes.expire(now);
+        int removedCooldowns = cooldowns.expire(now);
 
         if (removedJoinTimes > 0 || removedCooldowns > 0) {
             plugin.getPluginLogger().fine(
@@ -127,122 +249,235 @@ public class DataManager {
     }
 
     /**
-     * Stops the cleanup task and closes database connection.
+     * Stops the background tasks and saves the welcome state if enabled, then drains the
+     * storage: new welcomes are refused, buffered ones are flushed, everything written is
+     * synced to disk, and the backend is closed, all within the configured deadline. Blocking.
      */
     public void shutdown() {
         if (cleanupTask != null && !cleanupTask.isCancelled()) {
             cleanupTask.cancel();
         }
 
-        if (connection != null) {
+        if (flushTask != null && !flushTask.isCancelled()) {
+            flushTask.cancel();
+        }
+
+        if (plugin.getConfigManager().isPersistWelcomeState()) {
+            saveState();
+        }
+
+        if (storage != null) {
+            // Flushing, syncing and closing share one deadline
+            long timeoutMs = plugin.getConfigManager().getDatabaseShutdownTimeoutMs();
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            int unsaved = pendingWelcomes.drain(timeoutMs);
+            if (unsaved > 0) {
+                plugin.getPluginLogger().severe(unsaved + " welcomes could not be saved");
+            }
+
             try {
-                connection.close();
-                plugin.getPluginLogger().info("Database connection closed");
-            } catch (SQLException e) {
-                plugin.getPluginLogger().warning("Error closing database: " + e.getMessage());
+                storage.sync().get(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                plugin.getPluginLogger().warning("Timed out syncing " + storage.getName() + " storage");
+            } catch (ExecutionException e) {
+                plugin.getPluginLogger().warning("Failed to sync " + storage.getName() + " storage: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+
+            storage.close(Math.max(0L, deadline - System.currentTimeMillis()));
+            plugin.getPluginLogger().info(storage.getName() + " storage closed");
         }
     }
 
     /**
-     * Resets all data in the database.
+     * Runs a lookup task on the storage backend's own threads instead of the shared Bukkit async pool.
      */
-    public void resetDataAsync() {
-        plugin.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (Statement stmt = connection.createStatement()) {
-                stmt.execute("DELETE FROM welcomed_players");
-                stmt.execute("UPDATE metadata SET value = '0' WHERE key = 'unique_join_count'");
-
-                cooldowns.clear();
-                joinTimes.clear();
+    public void executeAsync(Runnable task) {
+        storageTasks.increment();
+        storage.lookupExecutor().execute(task);
+    }
 
-                plugin.getPluginLogger().info("Database reset successfully");
-            } catch (SQLException e) {
-                plugin.getPluginLogger().severe("Failed to reset database: " + e.getMessage());
-            }
+    /**
+     * Resets all stored data. The reset runs in the write-behind flush chain, after any batch
+     * already in flight, so a stale batch cannot write wiped welcomes back or restore the old
+     * join count. In-memory state and pending welcomes are cleared right before the backend is
+     * wiped, while no claim is in progress; welcomes claimed from then on are stored after the reset.
+     */
+    public void resetDataAsync() {
+        pendingWelcomes.clearAndRun(() -> {
+            welcomedPlayers.clear();
+            uniqueJoinCount.set(0L);
+            cooldowns.clear();
+            joinTimes.clear();
+            restoredJoins.clear();
+            return storage.reset();
+        }).thenRun(() ->
+                plugin.getPluginLogger().info("Database reset successfully")
+        ).exceptionally(e -> {
+            plugin.getPluginLogger().severe("Failed to reset database: " + e.getMessage());
+            return null;
         });
     }
 
     /**
-     * Saves data to the database (for compatibility, but SQLite auto-commits).
+     * Checks the in-memory index only. Never blocks, so it is safe on the main thread.
+     * A miss is final unless {@link #isStorageShared()}.
      */
-    public void saveDataAsync() {
-        // SQLite auto-commits by default, so this is mostly for compatibility
-        plugin.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                if (connection != null && !connection.isClosed()) {
-                    // Force any pending writes
-                    connection.commit();
-                }
-            } catch (SQLException e) {
-                plugin.getPluginLogger().warning("Error during save: " + e.getMessage());
-            }
-        });
+    public boolean isKnownWelcomed(UUID playerId) {
+        return welcomedPlayers.contains(playerId);
+    }
+
+    /**
+     * Checks whether other servers write to the same storage, so that an index miss
+     * has to be confirmed through {@link #isNewPlayer(UUID)}.
+     */
+    public boolean isStorageShared() {
+        return storage.isShared();
     }
 
     /**
      * Checks if a player is new (not yet welcomed).
-     * Thread-safe with database lookup.
+     * Answered from the in-memory index; shared backends confirm a miss against the database,
+     * so this may block and must not be called on the main thread.
      */
     public boolean isNewPlayer(UUID playerId) {
-        try (PreparedStatement stmt = connection.prepareStatement(
-                "SELECT 1 FROM welcomed_players WHERE uuid = ? LIMIT 1"
-        )) {
-            stmt.setString(1, playerId.toString());
-            ResultSet rs = stmt.executeQuery();
-            return !rs.next(); // Returns true if no record found (new player)
-        } catch (SQLException e) {
-            plugin.getPluginLogger().warning("Error checking if player is new: " + e.getMessage());
+        long start = System.nanoTime();
+        try {
+            return checkNewPlayer(playerId);
+        } finally {
+            newPlayerCheckTimer.recordSince(start);
+        }
+    }
+
+    private boolean checkNewPlayer(UUID playerId) {
+        if (welcomedPlayers.contains(playerId)) {
+            return false;
+        }
+        if (!storage.isShared()) {
+            return true;
+        }
+
+        try {
+            if (storage.isWelcomed(playerId)) {
+                // Welcomed on another server since startup
+                welcomedPlayers.add(playerId);
+                return false;
+            }
+            return true;
+        } catch (StorageException e) {
+            // Err on the side of not welcoming twice
+            plugin.getPluginLogger().warning("Failed to check welcomed player " + playerId + ": " + e.getMessage());
             return false;
         }
     }
 
     /**
-     * Marks a player as welcomed and increments the join count.
+     * Outcome of {@link #tryClaimWelcome(UUID, UUID)}.
      */
-    public void addWelcomedPlayer(UUID playerId) {
-        plugin.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                // Add to welcomed players
-                try (PreparedStatement stmt = connection.prepareStatement(
-                        "INSERT OR REPLACE INTO welcomed_players (uuid, welcomed_at) VALUES (?, ?)"
-                )) {
-                    stmt.setString(1, playerId.toString());
-                    stmt.setLong(2, System.currentTimeMillis());
-                    stmt.executeUpdate();
-                }
+    public enum WelcomeClaim {
+        CLAIMED,
+        ALREADY_WELCOMED,
+        WINDOW_EXPIRED,
+        ON_COOLDOWN,
+        SHUTTING_DOWN
+    }
 
-                // Increment unique join count
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(
-                            "UPDATE metadata SET value = CAST((CAST(value AS INTEGER) + 1) AS TEXT) " +
-                                    "WHERE key = 'unique_join_count'"
-                    );
-                }
+    /**
+     * Atomically claims the welcome of a new player for one welcomer. The welcomer's cooldown
+     * is taken with a CAS first, then the target is added to the welcomed index, whose add
+     * only succeeds for one caller; a losing welcomer gets its cooldown back. The winner's
+     * welcome is buffered and stored with the next batch. Adding to the index and buffering
+     * are exclusive with {@link #resetDataAsync()}, so a reset cannot split them.
+     * May block on shared backends, so it must not be called on the main thread.
+     * @return {@link WelcomeClaim#CLAIMED} for exactly one caller per new player
+     */
+    public WelcomeClaim tryClaimWelcome(UUID targetId, UUID welcomerId) {
+        WelcomeClaim claim = claimWelcome(targetId, welcomerId);
+        claimCounters[claim.ordinal()].increment();
+        return claim;
+    }
+
+    private WelcomeClaim claimWelcome(UUID targetId, UUID welcomerId) {
+        if (pendingWelcomes.isClosed()) {
+            return WelcomeClaim.SHUTTING_DOWN;
+        }
+
+        if (!isNewPlayer(targetId)) {
+            return WelcomeClaim.ALREADY_WELCOMED;
+        }
+
+        if (!isWithinWelcomeWindow(targetId)) {
+            return WelcomeClaim.WINDOW_EXPIRED;
+        }
+
+        // Claim the cooldown so concurrent commands by the same welcomer cannot both win
+        long now = System.currentTimeMillis();
+        long lastUsed = cooldowns.get(welcomerId);
+        if (lastUsed != ExpiringUuidMap.ABSENT && now < lastUsed + plugin.getConfigManager().getWelcomeCooldown() * 1000L) {
+            return WelcomeClaim.ON_COOLDOWN;
+        }
+        boolean cooldownClaimed = lastUsed == ExpiringUuidMap.ABSENT
+                ? cooldowns.putIfAbsent(welcomerId, now)
+                : cooldowns.replace(welcomerId, lastUsed, now);
+        if (!cooldownClaimed) {
+            return WelcomeClaim.ON_COOLDOWN;
+        }
 
-                // Remove from join times cache
-                joinTimes.remove(playerId);
-            } catch (SQLException e) {
-                plugin.getPluginLogger().severe("Error adding welcomed player: " + e.getMessage());
+        // Index and buffer change together, so a reset or shutdown sees both or neither
+        WelcomeClaim claim = pendingWelcomes.runWithAddLock(() -> {
+            if (pendingWelcomes.isClosed()) {
+                return WelcomeClaim.SHUTTING_DOWN;
             }
+            if (!welcomedPlayers.add(targetId)) {
+                return WelcomeClaim.ALREADY_WELCOMED;
+            }
+            long joinCount = uniqueJoinCount.incrementAndGet();
+            pendingWelcomes.add(targetId, new WelcomeRecord(targetId, now, joinCount));
+            return WelcomeClaim.CLAIMED;
         });
+
+        if (claim != WelcomeClaim.CLAIMED) {
+            // Lost the race for this player or shutting down, so hand the cooldown back
+            releaseCooldown(welcomerId, now, lastUsed);
+            return claim;
+        }
+
+        // Remove from join times cache
+        joinTimes.remove(targetId);
+        return WelcomeClaim.CLAIMED;
     }
 
     /**
-     * Gets the total number of unique joins.
+     * Hands back a cooldown taken by a claim that did not go through, unless it changed since.
      */
-    public int getUniqueJoinCount() {
-        try (PreparedStatement stmt = connection.prepareStatement(
-                "SELECT value FROM metadata WHERE key = 'unique_join_count'"
-        )) {
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return Integer.parseInt(rs.getString("value"));
-            }
-        } catch (SQLException | NumberFormatException e) {
-            plugin.getPluginLogger().warning("Error getting unique join count: " + e.getMessage());
+    private void releaseCooldown(UUID welcomerId, long claimedAt, long lastUsed) {
+        if (lastUsed == ExpiringUuidMap.ABSENT) {
+            cooldowns.remove(welcomerId, claimedAt);
+        } else {
+            cooldowns.replace(welcomerId, claimedAt, lastUsed);
         }
-        return 0;
+    }
+
+    /**
+     * Stores one batch and adopts the stored join count if it is ahead of ours,
+     * which happens when other servers share the backend.
+     */
+    private CompletableFuture<Long> saveBatch(List<WelcomeRecord> batch) {
+        long start = System.nanoTime();
+        return storage.saveWelcomes(batch).thenApply(stored -> {
+            batchTimer.recordSince(start);
+            uniqueJoinCount.accumulateAndGet(stored, Math::max);
+            return stored;
+        });
+    }
+
+    /**
+     * Gets the total number of unique joins.
+     * Lock-free read of the in-memory counter.
+     */
+    public long getUniqueJoinCount() {
+        return uniqueJoinCount.get();
     }
 
     /**
@@ -250,8 +485,8 @@ public class DataManager {
      * Thread-safe using in-memory cache.
      */
     public boolean isOnCooldown(UUID playerId) {
-        Long lastUsed = cooldowns.get(playerId);
-        if (lastUsed == null) return false;
+        long lastUsed = cooldowns.get(playerId);
+        if (lastUsed == ExpiringUuidMap.ABSENT) return false;
 
         long currentTime = System.currentTimeMillis();
         long cooldownDuration = plugin.getConfigManager().getWelcomeCooldown() * 1000L;
@@ -263,8 +498,8 @@ public class DataManager {
      * Thread-safe using in-memory cache.
      */
     public long getRemainingCooldown(UUID playerId) {
-        Long lastUsed = cooldowns.get(playerId);
-        if (lastUsed == null) return 0;
+        long lastUsed = cooldowns.get(playerId);
+        if (lastUsed == ExpiringUuidMap.ABSENT) return 0;
 
         long cooldownDuration = plugin.getConfigManager().getWelcomeCooldown() * 1000L;
         long remaining = lastUsed + cooldownDuration - System.currentTimeMillis();
@@ -272,29 +507,45 @@ public class DataManager {
     }
 
     /**
-     * Sets a cooldown for the player.
+     * Records the system time at which a player joined, restarting their welcome window.
+     * The first join after a restart keeps a restored join time that is still inside the
+     * window, so the restart does not reset it; later joins restart the window as usual.
      * Thread-safe using in-memory cache.
      */
-    public void setCooldown(UUID playerId) {
-        cooldowns.put(playerId, System.currentTimeMillis());
+    public void recordJoinTime(UUID playerId) {
+        long now = System.currentTimeMillis();
+        if (restoredJoins.remove(playerId)) {
+            joinTimes.putIfExpired(playerId, now);
+        } else {
+            joinTimes.put(playerId, now);
+        }
     }
 
     /**
-     * Records the system time at which a player joined.
+     * Checks if the player joined recently enough to still be welcomed.
      * Thread-safe using in-memory cache.
      */
-    public void recordJoinTime(UUID playerId) {
-        joinTimes.put(playerId, System.currentTimeMillis());
+    public boolean isWithinWelcomeWindow(UUID playerId) {
+        long joinTime = joinTimes.get(playerId);
+        if (joinTime == ExpiringUuidMap.ABSENT) return false;
+
+        return System.currentTimeMillis() < joinTime + welcomeWindowMs();
     }
 
     /**
-     * Checks if the player joined recently enough to still be welcomed.
-     * Thread-safe using in-memory cache.
+     * Applies the reloaded welcome window and cooldown to the expiry maps,
+     * rescheduling existing entries to match.
      */
-    public boolean isWithinWelcomeWindow(UUID playerId) {
-        Long joinTime = joinTimes.get(playerId);
-        if (joinTime == null) return false;
+    public void applySettings() {
+        joinTimes.setTtl(welcomeWindowMs());
+        cooldowns.setTtl(cooldownMs());
+    }
+
+    private long welcomeWindowMs() {
+        return plugin.getConfigManager().getWelcomeWindow() * 1000L;
+    }
 
-        return System.currentTimeMillis() < joinTime + WELCOME_WINDOW_MS;
+    private long cooldownMs() {
+        return plugin.getConfigManager().getWelcomeCooldown() * 1000L;
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package carnage.playerWelcomer.managers;
 
 import carnage.playerWelcomer.PlayerWelcomer;
+import carnage.playerWelcomer.metrics.Counter;
+import carnage.playerWelcomer.metrics.MainThreadProfiler;
+import carnage.playerWelcomer.metrics.MetricsRegistry;
 import org.bukkit.entity.Player;
 
 /**
@@ -12,8 +15,21 @@ public class RewardManager {
     private final CurrencyManager currencyManager;
     private final boolean isExcellentCratesAvailable;
 
+    private final Counter currencyRewards;
+    private final Counter currencyRewardFailures;
+    private final Counter crateKeyRewards;
+    private final Counter crateKeyRewardFailures;
+    private final Counter invalidRewards;
+
     public RewardManager(PlayerWelcomer plugin) {
         this.plugin = plugin;
+        MetricsRegistry metrics = plugin.getMetrics();
+        String help = "Rewards given by reward type and result";
+        this.currencyRewards = metrics.counter("playerwelcomer_rewards_total", help, "type", "currency", "result", "success");
+        this.currencyRewardFailures = metrics.counter("playerwelcomer_rewards_total", help, "type", "currency", "result", "failure");
+        this.crateKeyRewards = metrics.counter("playerwelcomer_rewards_total", help, "type", "crate_key", "result", "success");
+        this.crateKeyRewardFailures = metrics.counter("playerwelcomer_rewards_total", help, "type", "crate_key", "result", "failure");
+        this.invalidRewards = metrics.counter("playerwelcomer_rewards_total", help, "type", "invalid", "result", "failure");
         this.currencyManager = new CurrencyManager(plugin);
         this.isExcellentCratesAvailable = plugin.getServer().getPluginManager().getPlugin("ExcellentCrates") != null;
 
@@ -32,16 +48,22 @@ public class RewardManager {
      */
     public boolean giveReward(Player player, String rewardType, String currencyType, double amount, String crateKeyName) {
         if (rewardType == null) {
+            invalidRewards.increment();
             plugin.getPluginLogger().warning("Reward type is null for " + player.getName());
             return false;
         }
 
         if (rewardType.equalsIgnoreCase("currency")) {
-            return giveCurrencyReward(player, currencyType, amount);
+            boolean given = giveCurrencyReward(player, currencyType, amount);
+            (given ? currencyRewards : currencyRewardFailures).increment();
+            return given;
         } else if (rewardType.equalsIgnoreCase("crate_key")) {
-            return giveCrateKeyReward(player, crateKeyName, amount);
+            boolean given = giveCrateKeyReward(player, crateKeyName, amount);
+            (given ? crateKeyRewards : crateKeyRewardFailures).increment();
+            return given;
         }
 
+        invalidRewards.increment();
         plugin.getPluginLogger().warning("Invalid reward type: " + rewardType + " for " + player.getName());
         return false;
     }
@@ -98,10 +120,12 @@ public class RewardManager {
         try {
             // Must run on main thread
             plugin.getScheduler().runTask(plugin, () -> {
+                long start = System.nanoTime();
                 boolean success = plugin.getServer().dispatchCommand(
                         plugin.getServer().getConsoleSender(),
                         command
                 );
+                plugin.getMainThreadProfiler().record(MainThreadProfiler.Operation.CRATE_COMMAND, start);
 
                 if (!success) {
                     plugin.getPluginLogger().warning(
@@ -0,0 +1,22 @@
+package carnage.playerWelcomer.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic event count. Backed by a {@link LongAdder}, so concurrent increments do not contend.
+ */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long count() {
+        return value.sum();
+    }
+}
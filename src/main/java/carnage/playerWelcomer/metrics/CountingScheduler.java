@@ -0,0 +1,47 @@
+package carnage.playerWelcomer.metrics;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * The scheduler methods the plugin uses, delegating to the server scheduler and counting
+ * every task scheduled, split into main-thread and async tasks. Covering only these methods
+ * keeps the counting explicit; a new kind of scheduling call has to be added here first.
+ */
+public final class CountingScheduler {
+    private final BukkitScheduler scheduler;
+    private final Counter mainTasks;
+    private final Counter asyncTasks;
+
+    public CountingScheduler(BukkitScheduler scheduler, MetricsRegistry registry) {
+        this.scheduler = scheduler;
+        String help = "Tasks scheduled by the plugin";
+        this.mainTasks = registry.counter("playerwelcomer_tasks_scheduled_total", help, "thread", "main");
+        this.asyncTasks = registry.counter("playerwelcomer_tasks_scheduled_total", help, "thread", "async");
+    }
+
+    public BukkitTask runTask(Plugin plugin, Runnable task) {
+        mainTasks.increment();
+        return scheduler.runTask(plugin, task);
+    }
+
+    public BukkitTask runTaskLater(Plugin plugin, Runnable task, long delay) {
+        mainTasks.increment();
+        return scheduler.runTaskLater(plugin, task, delay);
+    }
+
+    public BukkitTask runTaskAsynchronously(Plugin plugin, Runnable task) {
+        asyncTasks.increment();
+        return scheduler.runTaskAsynchronously(plugin, task);
+    }
+
+    public BukkitTask runTaskTimerAsynchronously(Plugin plugin, Runnable task, long delay, long period) {
+        asyncTasks.increment();
+        return scheduler.runTaskTimerAsynchronously(plugin, task, delay, period);
+    }
+
+    public void cancelTasks(Plugin plugin) {
+        scheduler.cancelTasks(plugin);
+    }
+}
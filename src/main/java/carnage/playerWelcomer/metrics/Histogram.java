@@ -0,0 +1,104 @@
+package carnage.playerWelcomer.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of non-negative longs. Every power of two is split into
+ * 16 linear sub-buckets, so any recorded value is reported within about 6% while the whole
+ * range of a long fits in 960 counters. Recording is one index computation and one atomic
+ * increment; nothing allocates.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value; negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0L, value);
+        counts.incrementAndGet(bucketIndex(clamped));
+        count.increment();
+        sum.add(clamped);
+
+        // Only contend on the maximum when it actually grows
+        long currentMax = max.get();
+        while (clamped > currentMax && !max.compareAndSet(currentMax, clamped)) {
+            currentMax = max.get();
+        }
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Largest value that falls into the bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Copies the current counts. Concurrent recordings may be partially included.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, count.sum(), sum.sum(), max.get());
+    }
+
+    /**
+     * Point-in-time view of a histogram.
+     */
+    public record Snapshot(long[] counts, long count, long sum, long max) {
+
+        /**
+         * Value at or below which the given fraction of recordings fall, e.g. 0.99 for p99.
+         * Reported as the upper end of its bucket, capped at the maximum.
+         */
+        public long valueAtQuantile(double quantile) {
+            long total = 0L;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+            if (total == 0L) {
+                return 0L;
+            }
+
+            long target = Math.max(1L, (long) Math.ceil(quantile * total));
+            long seen = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        public double mean() {
+            return count == 0L ? 0.0 : (double) sum / count;
+        }
+    }
+}
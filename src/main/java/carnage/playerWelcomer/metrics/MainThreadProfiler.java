@@ -0,0 +1,144 @@
+package carnage.playerWelcomer.metrics;
+
+import org.bukkit.Server;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Accounts the time the plugin spends on the main thread, per operation and per server tick.
+ * The last {@link #HISTORY_TICKS} ticks are kept in a ring indexed by tick number, so a slow
+ * tick can be traced back to the operation that caused it. Every operation also feeds a
+ * {@code playerwelcomer_main_thread_seconds} timer for the long-run distribution.
+ * Recording and reporting must both happen on the main thread, which is what keeps the ring
+ * free of synchronization.
+ */
+public final class MainThreadProfiler {
+    /**
+     * Ticks of history kept, one minute at 20 TPS.
+     */
+    public static final int HISTORY_TICKS = 1_200;
+
+    /**
+     * Main-thread work of the plugin that is accounted.
+     */
+    public enum Operation {
+        /** First-join banners broadcast by the announcement drain, including the join count lookup. */
+        JOIN_BROADCAST,
+        /** The /welcome broadcast. */
+        WELCOME_BROADCAST,
+        /** Handing out the reward, including deposits made inline by PlayerPoints and CoinsEngine. */
+        REWARD_DISPATCH,
+        /** The Vault deposit, run in its own task. */
+        VAULT_DEPOSIT,
+        /** The crate key command dispatch, run in its own task. */
+        CRATE_COMMAND;
+
+        private final String label = name().toLowerCase(Locale.ROOT);
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final int OPERATION_COUNT = OPERATIONS.length;
+
+    private final Server server;
+    private final Timer[] timers = new Timer[OPERATION_COUNT];
+    // Row per ring slot, one column per operation
+    private final int[] slotTicks = new int[HISTORY_TICKS];
+    private final long[] slotNanos = new long[HISTORY_TICKS * OPERATION_COUNT];
+    private final int[] slotCalls = new int[HISTORY_TICKS * OPERATION_COUNT];
+
+    public MainThreadProfiler(Server server, MetricsRegistry registry) {
+        this.server = server;
+        Arrays.fill(slotTicks, -1);
+        for (Operation operation : OPERATIONS) {
+            timers[operation.ordinal()] = registry.timer(
+                    "playerwelcomer_main_thread_seconds", "Time spent on the main thread by operation",
+                    "operation", operation.label()
+            );
+        }
+    }
+
+    /**
+     * Records an operation that started at a {@link System#nanoTime()} reading and just ended.
+     * Main thread only.
+     */
+    public void record(Operation operation, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        timers[operation.ordinal()].record(elapsed);
+
+        int tick = server.getCurrentTick();
+        int slot = Math.floorMod(tick, HISTORY_TICKS);
+        int row = slot * OPERATION_COUNT;
+        if (slotTicks[slot] != tick) {
+            // First record in this tick, the slot still holds a tick from a lap ago
+            slotTicks[slot] = tick;
+            Arrays.fill(slotNanos, row, row + OPERATION_COUNT, 0L);
+            Arrays.fill(slotCalls, row, row + OPERATION_COUNT, 0);
+        }
+        slotNanos[row + operation.ordinal()] += elapsed;
+        slotCalls[row + operation.ordinal()]++;
+    }
+
+    /**
+     * Aggregates the most recent ticks, up to {@link #HISTORY_TICKS}. Main thread only.
+     */
+    public Report report(int ticks) {
+        int window = Math.max(1, Math.min(ticks, HISTORY_TICKS));
+        int currentTick = server.getCurrentTick();
+
+        long[] nanos = new long[OPERATION_COUNT];
+        long[] calls = new long[OPERATION_COUNT];
+        long[] maxTickNanos = new long[OPERATION_COUNT];
+        int activeTicks = 0;
+        int worstTick = -1;
+        long worstTickNanos = 0L;
+        long[] worstTickBreakdown = new long[OPERATION_COUNT];
+
+        for (int tick = currentTick - window + 1; tick <= currentTick; tick++) {
+            int slot = Math.floorMod(tick, HISTORY_TICKS);
+            if (slotTicks[slot] != tick) {
+                continue;
+            }
+
+            activeTicks++;
+            int row = slot * OPERATION_COUNT;
+            long tickNanos = 0L;
+            for (int op = 0; op < OPERATION_COUNT; op++) {
+                long opNanos = slotNanos[row + op];
+                nanos[op] += opNanos;
+                calls[op] += slotCalls[row + op];
+                maxTickNanos[op] = Math.max(maxTickNanos[op], opNanos);
+                tickNanos += opNanos;
+            }
+            if (tickNanos > worstTickNanos) {
+                worstTick = tick;
+                worstTickNanos = tickNanos;
+                System.arraycopy(slotNanos, row, worstTickBreakdown, 0, OPERATION_COUNT);
+            }
+        }
+
+        return new Report(window, activeTicks, nanos, calls, maxTickNanos, worstTick, worstTickNanos, worstTickBreakdown);
+    }
+
+    /**
+     * Main-thread time over a window of ticks. Arrays are indexed by {@link Operation#ordinal()}.
+     * @param ticks ticks covered
+     * @param activeTicks ticks in which the plugin did any accounted work
+     * @param maxTickNanos the most time one operation took within a single tick
+     * @param worstTick the tick with the most plugin time, or -1 if there was none
+     */
+    public record Report(int ticks, int activeTicks, long[] nanos, long[] calls, long[] maxTickNanos,
+                         int worstTick, long worstTickNanos, long[] worstTickBreakdown) {
+        public long totalNanos() {
+            long total = 0L;
+            for (long operationNanos : nanos) {
+                total += operationNanos;
+            }
+            return total;
+        }
+    }
+}
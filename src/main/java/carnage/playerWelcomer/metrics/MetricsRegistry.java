@@ -0,0 +1,126 @@
+package carnage.playerWelcomer.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Named counters and timers, grouped into families that share a name and differ by labels,
+ * in the Prometheus data model. Lookups go through concurrent maps, so hot paths should
+ * look their metrics up once and keep them in fields.
+ */
+public final class MetricsRegistry {
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * Kind of metric in a family.
+     */
+    public enum Type {
+        COUNTER,
+        TIMER
+    }
+
+    /**
+     * Receives every metric, family by family in name order.
+     */
+    public interface Visitor {
+        void family(String name, String help, Type type);
+
+        /**
+         * @param labels rendered label set, e.g. {@code result="claimed"}, or empty
+         */
+        void counter(String name, String labels, long value);
+
+        /**
+         * @param snapshot durations in nanoseconds
+         */
+        void timer(String name, String labels, Histogram.Snapshot snapshot);
+    }
+
+    /**
+     * Gets or creates a counter.
+     * @param labels alternating label names and values
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return family(name, help, Type.COUNTER).get(renderLabels(labels), Counter::new, Counter.class);
+    }
+
+    /**
+     * Gets or creates a timer.
+     * @param labels alternating label names and values
+     */
+    public Timer timer(String name, String help, String... labels) {
+        return family(name, help, Type.TIMER).get(renderLabels(labels), Timer::new, Timer.class);
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    /**
+     * Visits every metric; values are read while visiting.
+     */
+    public void visit(Visitor visitor) {
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            visitor.family(name, family.help, family.type);
+
+            for (Map.Entry<String, Object> member : family.members.entrySet()) {
+                if (member.getValue() instanceof Counter counter) {
+                    visitor.counter(name, member.getKey(), counter.count());
+                } else if (member.getValue() instanceof Timer timer) {
+                    visitor.timer(name, member.getKey(), timer.snapshot());
+                }
+            }
+        }
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name and value pairs");
+        }
+        if (labels.length == 0) {
+            return "";
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                switch (ch) {
+                    case '\\' -> builder.append("\\\\");
+                    case '"' -> builder.append("\\\"");
+                    case '\n' -> builder.append("\\n");
+                    default -> builder.append(ch);
+                }
+            }
+            builder.append('"');
+        }
+        return builder.toString();
+    }
+
+    private static final class Family {
+        private final String help;
+        private final Type type;
+        private final Map<String, Object> members = new ConcurrentSkipListMap<>();
+
+        private Family(String help, Type type) {
+            this.help = help;
+            this.type = type;
+        }
+
+        private <T> T get(String labels, Supplier<T> factory, Class<T> metricClass) {
+            return metricClass.cast(members.computeIfAbsent(labels, key -> factory.get()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package carnage.playerWelcomer.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Writes a {@link MetricsRegistry} in the Prometheus text exposition format. Counters are
+ * exported as counters, timers as summaries in seconds with p50, p90, p99 and p999.
+ * The file is replaced atomically, so a collector such as node_exporter's textfile
+ * collector never reads a partial dump.
+ */
+public final class PrometheusExporter {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final Logger logger;
+
+    public PrometheusExporter(MetricsRegistry registry, Path file, Logger logger) {
+        this.registry = registry;
+        this.file = file;
+        this.logger = logger;
+    }
+
+    /**
+     * Writes the current values to the file. Logs instead of throwing, so it can run on a timer.
+     */
+    public void export() {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, format(registry), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Failed to write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Renders every metric in the text exposition format.
+     */
+    public static String format(MetricsRegistry registry) {
+        StringBuilder out = new StringBuilder(4_096);
+        registry.visit(new MetricsRegistry.Visitor() {
+            @Override
+            public void family(String name, String help, MetricsRegistry.Type type) {
+                out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+                out.append("# TYPE ").append(name).append(' ')
+                        .append(type == MetricsRegistry.Type.COUNTER ? "counter" : "summary").append('\n');
+            }
+
+            @Override
+            public void counter(String name, String labels, long value) {
+                sample(name, labels, null, Long.toString(value));
+            }
+
+            @Override
+            public void timer(String name, String labels, Histogram.Snapshot snapshot) {
+                for (double quantile : QUANTILES) {
+                    sample(name, labels, "quantile=\"" + quantile + "\"",
+                            seconds(snapshot.valueAtQuantile(quantile)));
+                }
+                sample(name + "_sum", labels, null, seconds(snapshot.sum()));
+                sample(name + "_count", labels, null, Long.toString(snapshot.count()));
+            }
+
+            private void sample(String name, String labels, String extraLabel, String value) {
+                out.append(name);
+                if (!labels.isEmpty() || extraLabel != null) {
+                    out.append('{').append(labels);
+                    if (extraLabel != null) {
+                        out.append(labels.isEmpty() ? "" : ",").append(extraLabel);
+                    }
+                    out.append('}');
+                }
+                out.append(' ').append(value).append('\n');
+            }
+        });
+        return out.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / NANOS_PER_SECOND);
+    }
+}
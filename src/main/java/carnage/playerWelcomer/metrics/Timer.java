@@ -0,0 +1,24 @@
+package carnage.playerWelcomer.metrics;
+
+/**
+ * Distribution of durations in nanoseconds.
+ * Callers take {@link System#nanoTime()} themselves and hand the start to {@link #recordSince(long)}.
+ */
+public final class Timer {
+    private final Histogram histogram = new Histogram();
+
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading.
+     */
+    public void recordSince(long startNanos) {
+        histogram.record(System.nanoTime() - startNanos);
+    }
+
+    public Histogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+}
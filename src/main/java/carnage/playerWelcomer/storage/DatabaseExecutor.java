@@ -0,0 +1,219 @@
+package carnage.playerWelcomer.storage;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Dedicated executor for all database work, backed by its own small connection pool.
+ * Lookups run on a bounded pool of reader threads using read-only connections, while
+ * every write is serialized through a single writer thread owning the only writable
+ * connection. Keeps SQL off the shared Bukkit async pool. Each connection carries its
+ * own prepared statement cache.
+ */
+public final class DatabaseExecutor {
+    private static final long BORROW_TIMEOUT_MS = 5_000L;
+
+    /**
+     * Opens a new JDBC connection.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * Unit of database work producing a result.
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T apply(PooledConnection connection) throws SQLException;
+    }
+
+    /**
+     * Unit of database work without a result.
+     */
+    @FunctionalInterface
+    public interface SqlTask {
+        void run(PooledConnection connection) throws SQLException;
+    }
+
+    private final Logger logger;
+    private final PooledConnection writer;
+    private final List<PooledConnection> readerConnections;
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private final ThreadPoolExecutor readExecutor;
+    private final ThreadPoolExecutor writeExecutor;
+    private volatile boolean closed;
+
+    /**
+     * Opens the writer connection first (so it can set up journaling), then the readers.
+     * @param writerFactory factory for the single writable connection
+     * @param readerFactory factory for the read-only connections
+     * @param readerCount number of reader connections and reader threads
+     * @param queueCapacity maximum number of queued tasks per executor
+     * @param logger logger for rejected or failed tasks
+     * @throws SQLException if any connection cannot be opened
+     */
+    public DatabaseExecutor(ConnectionFactory writerFactory, ConnectionFactory readerFactory,
+                            int readerCount, int queueCapacity, Logger logger) throws SQLException {
+        this.logger = logger;
+        this.writer = new PooledConnection(writerFactory);
+        this.readerConnections = new ArrayList<>(readerCount);
+        this.idleReaders = new ArrayBlockingQueue<>(readerCount);
+
+        try {
+            for (int i = 0; i < readerCount; i++) {
+                PooledConnection reader = new PooledConnection(readerFactory);
+                readerConnections.add(reader);
+                idleReaders.add(reader);
+            }
+        } catch (SQLException e) {
+            closeConnections();
+            throw e;
+        }
+
+        this.readExecutor = new ThreadPoolExecutor(
+                readerCount, readerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory("PlayerWelcomer-DB-Reader")
+        );
+        this.writeExecutor = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory("PlayerWelcomer-DB-Writer")
+        );
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Runs a lookup task on the reader threads.
+     * Tasks are dropped with a warning if the queue is full.
+     */
+    public void execute(Runnable task) {
+        try {
+            readExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.warning("Database read queue is full or closed; dropping lookup task");
+        }
+    }
+
+    /**
+     * Runs a query on the calling thread using a borrowed reader connection.
+     * Never blocks on the writer.
+     */
+    public <T> T read(SqlWork<T> work) throws SQLException {
+        PooledConnection connection = borrowReader();
+        try {
+            connection.validate();
+            return work.apply(connection);
+        } finally {
+            idleReaders.offer(connection);
+        }
+    }
+
+    /**
+     * Queues a task on the single writer thread.
+     * @return future completed once the task ran, or exceptionally if it failed or was rejected
+     */
+    public CompletableFuture<Void> write(SqlTask task) {
+        return writeAndGet(connection -> {
+            task.run(connection);
+            return null;
+        });
+    }
+
+    /**
+     * Queues a task producing a result on the single writer thread.
+     * @return future with the task's result, or completed exceptionally if it failed or was rejected
+     */
+    public <T> CompletableFuture<T> writeAndGet(SqlWork<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    writer.validate();
+                    future.complete(work.apply(writer));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private PooledConnection borrowReader() throws SQLException {
+        if (closed) {
+            throw new SQLException("Database executor is closed");
+        }
+
+        try {
+            PooledConnection connection = idleReaders.poll(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (connection == null) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+            return connection;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    /**
+     * Stops accepting tasks, waits for queued work to finish and closes all connections.
+     * Writes and lookups share one deadline; connections are closed once it passes.
+     * @param timeoutMs how long to wait for queued tasks, 0 to not wait at all
+     */
+    public void shutdown(long timeoutMs) {
+        closed = true;
+        readExecutor.shutdown();
+        writeExecutor.shutdown();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            if (!writeExecutor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warning("Timed out waiting for pending database writes");
+            }
+            if (!readExecutor.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                readExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        closeConnections();
+    }
+
+    private void closeConnections() {
+        for (PooledConnection reader : readerConnections) {
+            closeQuietly(reader);
+        }
+        closeQuietly(writer);
+    }
+
+    private void closeQuietly(PooledConnection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("Error closing database connection: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package carnage.playerWelcomer.storage;
+
+import carnage.playerWelcomer.util.UuidSet;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+/**
+ * Base class for JDBC backends. All SQL runs through a {@link DatabaseExecutor}:
+ * loads and lookups use the pooled reader connections, while batches and resets are
+ * serialized on the writer connection, one transaction each.
+ * Subclasses supply connections, schema setup and dialect-specific SQL.
+ */
+public abstract class JdbcWelcomeStorage implements WelcomeStorage {
+    protected final Logger logger;
+    private final int readerConnections;
+    private final int queueCapacity;
+    private DatabaseExecutor database;
+
+    protected JdbcWelcomeStorage(Logger logger, int readerConnections, int queueCapacity) {
+        this.logger = logger;
+        this.readerConnections = readerConnections;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Opens the single writable connection.
+     */
+    protected abstract Connection openWriter() throws SQLException;
+
+    /**
+     * Opens a read-only connection.
+     */
+    protected abstract Connection openReader() throws SQLException;
+
+    /**
+     * Creates or upgrades the schema. Runs on the writer connection.
+     */
+    protected abstract void migrate(PooledConnection connection) throws SQLException;
+
+    protected abstract String countWelcomedSql();
+
+    protected abstract String selectWelcomedSql();
+
+    protected abstract String existsWelcomedSql();
+
+    /**
+     * Inserts one welcomed player, ignoring duplicates. Parameters: uuid bytes, welcomed_at.
+     */
+    protected abstract String insertWelcomedSql();
+
+    protected abstract String deleteWelcomedSql();
+
+    protected abstract String selectJoinCountSql();
+
+    /**
+     * Sets the join count. Parameter: the new value.
+     */
+    protected abstract String updateJoinCountSql();
+
+    /**
+     * Updates the stored join count after a batch, inside the batch transaction.
+     * @param inserted number of rows the batch actually inserted
+     * @return the join count as stored
+     */
+    protected abstract long checkpointJoinCount(PooledConnection connection, List<WelcomeRecord> batch,
+                                                int inserted) throws SQLException;
+
+    /**
+     * Makes committed transactions durable, if committing alone does not. Runs on the writer connection.
+     */
+    protected void syncWrites(PooledConnection connection) throws SQLException {
+    }
+
+    /**
+     * Loads the driver class, if the backend needs one registered explicitly.
+     */
+    protected void loadDriver() throws ClassNotFoundException {
+    }
+
+    @Override
+    public void open() throws StorageException {
+        try {
+            loadDriver();
+            database = new DatabaseExecutor(
+                    this::openWriter, this::openReader, readerConnections, queueCapacity, logger
+            );
+            database.write(this::migrate).join();
+        } catch (ClassNotFoundException e) {
+            throw new StorageException("JDBC driver for " + getName() + " not found", e);
+        } catch (SQLException e) {
+            throw new StorageException("Failed to open " + getName() + " database: " + e.getMessage(), e);
+        } catch (CompletionException e) {
+            throw new StorageException("Failed to set up " + getName() + " schema: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public UuidSet loadWelcomedPlayers() throws StorageException {
+        try {
+            return database.read(connection -> {
+                int expectedSize;
+                try (ResultSet rs = connection.prepare(countWelcomedSql()).executeQuery()) {
+                    expectedSize = rs.next() ? rs.getInt(1) : 0;
+                }
+
+                UuidSet index = new UuidSet(expectedSize);
+                try (ResultSet rs = connection.prepare(selectWelcomedSql()).executeQuery()) {
+                    while (rs.next()) {
+                        byte[] uuid = rs.getBytes(1);
+                        index.add(UuidCodec.msb(uuid), UuidCodec.lsb(uuid));
+                    }
+                }
+                return index;
+            });
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load welcomed players: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long loadUniqueJoinCount() throws StorageException {
+        try {
+            return database.read(connection -> {
+                try (ResultSet rs = connection.prepare(selectJoinCountSql()).executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            });
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load unique join count: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean isWelcomed(UUID playerId) throws StorageException {
+        try {
+            return database.read(connection -> {
+                PreparedStatement stmt = connection.prepare(existsWelcomedSql());
+                stmt.setBytes(1, UuidCodec.toBytes(playerId));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next();
+                }
+            });
+        } catch (SQLException e) {
+            throw new StorageException("Failed to check welcomed player: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> saveWelcomes(List<WelcomeRecord> batch) {
+        return database.writeAndGet(connection -> inTransaction(connection, () -> {
+            PreparedStatement insert = connection.prepare(insertWelcomedSql());
+            insert.clearBatch(); // Drop leftovers from a failed flush
+            for (WelcomeRecord welcome : batch) {
+                insert.setBytes(1, UuidCodec.toBytes(welcome.playerId()));
+                insert.setLong(2, welcome.welcomedAt());
+                insert.addBatch();
+            }
+
+            // Only count rows that were actually inserted
+            int inserted = 0;
+            for (int count : insert.executeBatch()) {
+                if (count > 0) {
+                    inserted += count;
+                }
+            }
+
+            return checkpointJoinCount(connection, batch, inserted);
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> reset() {
+        return database.write(connection -> inTransaction(connection, () -> {
+            connection.prepare(deleteWelcomedSql()).executeUpdate();
+
+            PreparedStatement resetCount = connection.prepare(updateJoinCountSql());
+            resetCount.setLong(1, 0L);
+            resetCount.executeUpdate();
+            return null;
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> sync() {
+        return database.write(this::syncWrites);
+    }
+
+    @Override
+    public Executor lookupExecutor() {
+        return database::execute;
+    }
+
+    @Override
+    public void close(long timeoutMs) {
+        if (database != null) {
+            database.shutdown(timeoutMs);
+        }
+    }
+
+    @FunctionalInterface
+    protected interface TransactionBody<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * Runs the body in a transaction on the given connection, rolling back on failure.
+     */
+    protected static <T> T inTransaction(PooledConnection connection, TransactionBody<T> body) throws SQLException {
+        Connection jdbc = connection.connection();
+        jdbc.setAutoCommit(false);
+        try {
+            T result = body.run();
+            jdbc.commit();
+            return result;
+        } catch (SQLException e) {
+            jdbc.rollback();
+            throw e;
+        } finally {
+            jdbc.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package carnage.playerWelcomer.storage;
+
+import carnage.playerWelcomer.util.UuidSet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Local storage engine without JDBC: a memory-mapped, append-only journal of fixed-size
+ * records {@code (uuid msb, uuid lsb, welcomed_at, checksum)}. The file is mapped in regions,
+ * so an append is a few stores into the page cache and each batch costs one {@code msync}.
+ * Page writeback after a crash may persist only some pages of the last batch, so every
+ * record carries a CRC32C and is aligned to never cross a page; startup stops at the first
+ * record that fails its checksum. The journal is then scanned into the in-memory index and
+ * compacted if it holds duplicates or a torn tail. The unique join count is the number of
+ * distinct records. Journals in the unchecksummed version 1 format are upgraded on open.
+ */
+public final class JournalWelcomeStorage implements WelcomeStorage {
+    private static final long MAGIC = 0x50574A524E4C0002L; // "PWJRNL" + format version 2
+    private static final long MAGIC_V1 = 0x50574A524E4C0001L;
+    private static final int RECORD_SIZE = 32; // Divides the page size, so no record straddles pages
+    private static final int RECORD_SIZE_V1 = 24;
+    private static final int HEADER_SIZE = RECORD_SIZE; // magic + record size, padded to keep records aligned
+    private static final int HEADER_SIZE_V1 = 16;
+    private static final int CHECKED_BYTES = 24;
+    private static final int REGION_RECORDS = 65_536;
+    private static final long REGION_SIZE = (long) RECORD_SIZE * REGION_RECORDS; // 2 MiB
+    private static final int READ_BUFFER_RECORDS = 4_096;
+
+    private final Path journalFile;
+    private final Logger logger;
+    private final ThreadPoolExecutor writer;
+
+    // Owned by the writer thread after open()
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long end;
+    private final CRC32C writeChecksum = new CRC32C();
+    private final ByteBuffer writeScratch = ByteBuffer.allocate(CHECKED_BYTES);
+
+    // Layout of the file being scanned, the version 1 layout until an old journal is upgraded
+    private int headerSize = HEADER_SIZE;
+    private int recordSize = RECORD_SIZE;
+
+    // Compacted state, handed over once during startup
+    private UuidSet loadedPlayers;
+
+    public JournalWelcomeStorage(Path journalFile, Logger logger, int queueCapacity) {
+        this.journalFile = journalFile;
+        this.logger = logger;
+        this.writer = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "PlayerWelcomer-Journal-Writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    @Override
+    public String getName() {
+        return "Journal";
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    @Override
+    public void open() throws StorageException {
+        try {
+            Files.createDirectories(journalFile.getParent());
+            channel = FileChannel.open(journalFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            if (channel.size() == 0L) {
+                writeHeader(channel);
+            } else {
+                checkHeader();
+            }
+
+            compact();
+            mapRegion(end);
+        } catch (IOException e) {
+            throw new StorageException("Failed to open welcome journal: " + e.getMessage(), e);
+        }
+    }
+
+    private static void writeHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(MAGIC).putInt(RECORD_SIZE).flip();
+        target.write(header, 0L);
+    }
+
+    private void checkHeader() throws IOException, StorageException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE_V1);
+        channel.read(header, 0L);
+        header.flip();
+        if (header.remaining() == HEADER_SIZE_V1) {
+            long magic = header.getLong();
+            int size = header.getInt();
+            if (magic == MAGIC && size == RECORD_SIZE) {
+                return;
+            }
+            if (magic == MAGIC_V1 && size == RECORD_SIZE_V1) {
+                headerSize = HEADER_SIZE_V1;
+                recordSize = RECORD_SIZE_V1;
+                return;
+            }
+        }
+        throw new StorageException("Unrecognized welcome journal format: " + journalFile);
+    }
+
+    /**
+     * Scans the journal into the index. Rewrites the file when it holds duplicate records or
+     * is in the old format, otherwise just trims the torn or unused tail.
+     */
+    private void compact() throws IOException {
+        loadedPlayers = new UuidSet();
+        long[] records = {0L};
+        end = scan((msb, lsb, welcomedAt) -> {
+            loadedPlayers.add(msb, lsb);
+            records[0]++;
+        });
+
+        long duplicates = records[0] - loadedPlayers.size();
+        if (recordSize != RECORD_SIZE) {
+            rewrite();
+            logger.info("Upgraded welcome journal to format version 2 (" + loadedPlayers.size() + " records)");
+        } else if (duplicates > 0) {
+            rewrite();
+            logger.info("Compacted welcome journal, dropped " + duplicates + " duplicate records");
+        } else if (channel.size() > end) {
+            channel.truncate(end);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(long msb, long lsb, long welcomedAt);
+    }
+
+    /**
+     * Visits every valid record in order, stopping at unused space or the first record that
+     * fails its checksum. Batches are forced one after another, so anything past that record
+     * belongs to the batch that was being written and was never acknowledged.
+     * @return file offset just past the last valid record
+     */
+    private long scan(RecordVisitor visitor) throws IOException {
+        int size = recordSize;
+        boolean checked = size == RECORD_SIZE;
+        CRC32C crc = new CRC32C();
+        ByteBuffer scratch = ByteBuffer.allocate(CHECKED_BYTES);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size * READ_BUFFER_RECORDS);
+        long position = headerSize;
+        long fileSize = channel.size();
+
+        while (position < fileSize) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            if (buffer.remaining() < size) {
+                break; // Torn record at the end of the file
+            }
+
+            while (buffer.remaining() >= size) {
+                long msb = buffer.getLong();
+                long lsb = buffer.getLong();
+                long welcomedAt = buffer.getLong();
+                if (checked) {
+                    long stored = buffer.getLong();
+                    if (stored != checksum(crc, scratch, msb, lsb, welcomedAt)) {
+                        if (stored != 0L || welcomedAt != 0L || msb != 0L || lsb != 0L) {
+                            logger.warning("Welcome journal has a torn record at offset " + position
+                                    + ", discarding it and anything after it");
+                        }
+                        return position;
+                    }
+                } else if (welcomedAt == 0L) {
+                    // Version 1 wrote welcomed_at last, so zero marks unused space or a torn append
+                    return position;
+                }
+                visitor.visit(msb, lsb, welcomedAt);
+                position += size;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * CRC32C of a record's fields. Never zero, so a zeroed record cannot pass as valid.
+     */
+    private static long checksum(CRC32C crc, ByteBuffer scratch, long msb, long lsb, long welcomedAt) {
+        scratch.clear();
+        scratch.putLong(msb).putLong(lsb).putLong(welcomedAt).flip();
+        crc.reset();
+        crc.update(scratch);
+        return crc.getValue() | 1L << 32;
+    }
+
+    /**
+     * Writes one record per distinct player to a temporary file and swaps it in.
+     */
+    private void rewrite() throws IOException {
+        Path temp = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        UuidSet written = new UuidSet(loadedPlayers.size());
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(out);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * READ_BUFFER_RECORDS);
+            CRC32C crc = new CRC32C();
+            ByteBuffer scratch = ByteBuffer.allocate(CHECKED_BYTES);
+            long[] position = {HEADER_SIZE};
+
+            IOException[] failure = {null};
+            scan((msb, lsb, welcomedAt) -> {
+                if (failure[0] != null || !written.add(msb, lsb)) {
+                    return;
+                }
+                buffer.putLong(msb).putLong(lsb).putLong(welcomedAt)
+                        .putLong(checksum(crc, scratch, msb, lsb, welcomedAt));
+                if (!buffer.hasRemaining()) {
+                    try {
+                        position[0] += drain(out, buffer, position[0]);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+
+            end = position[0] + drain(out, buffer, position[0]);
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(temp, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        headerSize = HEADER_SIZE;
+        recordSize = RECORD_SIZE;
+    }
+
+    private static int drain(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer, position + (length - buffer.remaining()));
+        }
+        buffer.clear();
+        return length;
+    }
+
+    /**
+     * Maps the region starting at the given offset, growing the file as needed.
+     */
+    private void mapRegion(long start) throws IOException {
+        region = channel.map(FileChannel.MapMode.READ_WRITE, start, REGION_SIZE);
+        regionStart = start;
+    }
+
+    @Override
+    public UuidSet loadWelcomedPlayers() {
+        UuidSet players = loadedPlayers;
+        loadedPlayers = null;
+        return players;
+    }
+
+    @Override
+    public long loadUniqueJoinCount() {
+        return (end - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /**
+     * Scans the journal with positional reads, safe alongside appends. Only needed by shared backends, so never on a hot path here.
+     */
+    @Override
+    public boolean isWelcomed(UUID playerId) throws StorageException {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        boolean[] found = {false};
+        try {
+            scan((recordMsb, recordLsb, welcomedAt) -> found[0] |= recordMsb == msb && recordLsb == lsb);
+            return found[0];
+        } catch (IOException e) {
+            throw new StorageException("Failed to read welcome journal: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> saveWelcomes(List<WelcomeRecord> batch) {
+        return submit(() -> {
+            int batchStart = (int) (end - regionStart);
+            long joinCount = 0L;
+            for (WelcomeRecord welcome : batch) {
+                if (end - regionStart + RECORD_SIZE > REGION_SIZE) {
+                    region.force(batchStart, (int) (end - regionStart) - batchStart);
+                    mapRegion(end);
+                    batchStart = 0;
+                }
+
+                int offset = (int) (end - regionStart);
+                long msb = welcome.playerId().getMostSignificantBits();
+                long lsb = welcome.playerId().getLeastSignificantBits();
+                region.putLong(offset, msb);
+                region.putLong(offset + 8, lsb);
+                region.putLong(offset + 16, welcome.welcomedAt());
+                region.putLong(offset + 24, checksum(writeChecksum, writeScratch, msb, lsb, welcome.welcomedAt()));
+                end += RECORD_SIZE;
+                joinCount = Math.max(joinCount, welcome.joinCount());
+            }
+
+            region.force(batchStart, (int) (end - regionStart) - batchStart);
+            return joinCount;
+        });
+    }
+
+    /**
+     * Zeroes the records in place rather than truncating, since a mapped file
+     * cannot be shrunk on every platform. The next startup trims the file.
+     */
+    @Override
+    public CompletableFuture<Void> reset() {
+        return submit(() -> {
+            for (long start = HEADER_SIZE; start < end; start += REGION_SIZE) {
+                mapRegion(start);
+                int length = (int) Math.min(REGION_SIZE, end - start);
+                for (int offset = 0; offset < length; offset += Long.BYTES) {
+                    region.putLong(offset, 0L);
+                }
+                region.force(0, length);
+            }
+
+            end = HEADER_SIZE;
+            mapRegion(end);
+            return null;
+        });
+    }
+
+    /**
+     * Records are already forced per batch; this also syncs the file's metadata.
+     */
+    @Override
+    public CompletableFuture<Void> sync() {
+        return submit(() -> {
+            channel.force(true);
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    private interface IoWork<T> {
+        T run() throws IOException;
+    }
+
+    private <T> CompletableFuture<T> submit(IoWork<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            writer.execute(() -> {
+                try {
+                    future.complete(work.run());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public Executor lookupExecutor() {
+        return this::submitLookup;
+    }
+
+    private void submitLookup(Runnable task) {
+        try {
+            writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.warning("Welcome journal queue is full or closed; dropping lookup task");
+        }
+    }
+
+    @Override
+    public void close(long timeoutMs) {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warning("Timed out waiting for pending welcome journal writes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warning("Error closing welcome journal: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package carnage.playerWelcomer.storage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Shared MySQL/MariaDB backend for networks where several servers share one set of
+ * welcomed players. Connections come from the {@link DatabaseExecutor} pool and use the
+ * MySQL Connector/J driver that ships with the server, which also talks to MariaDB,
+ * so the plugin neither bundles nor downloads a driver for it.
+ */
+public final class MySqlWelcomeStorage extends JdbcWelcomeStorage {
+    private final String url;
+    private final Properties connectionProperties;
+    private final String welcomedTable;
+    private final String metadataTable;
+
+    /**
+     * @param url JDBC URL of the database, see {@link #jdbcUrl(String, int, String, String)}
+     * @param tablePrefix prefix for table names, letters, digits and underscores only
+     */
+    public MySqlWelcomeStorage(String url, String username, String password, String tablePrefix,
+                               Logger logger, int readerConnections, int queueCapacity) {
+        super(logger, readerConnections, queueCapacity);
+        this.url = url;
+        this.connectionProperties = new Properties();
+        this.connectionProperties.setProperty("user", username);
+        this.connectionProperties.setProperty("password", password);
+        this.welcomedTable = tablePrefix + "welcomed_players";
+        this.metadataTable = tablePrefix + "metadata";
+    }
+
+    /**
+     * Builds the URL for MySQL Connector/J.
+     * @param extraProperties additional JDBC URL parameters, e.g. "sslMode=REQUIRED", or empty
+     */
+    public static String jdbcUrl(String host, int port, String database, String extraProperties) {
+        // Batches must not be rewritten into one statement, the per-row results count inserted rows
+        String parameters = "rewriteBatchedStatements=false";
+        if (extraProperties != null && !extraProperties.isBlank()) {
+            parameters += "&" + extraProperties;
+        }
+        return "jdbc:mysql://" + host + ":" + port + "/" + database + "?" + parameters;
+    }
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    protected Connection openWriter() throws SQLException {
+        return DriverManager.getConnection(url, connectionProperties);
+    }
+
+    @Override
+    protected Connection openReader() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, connectionProperties);
+        connection.setReadOnly(true);
+        return connection;
+    }
+
+    @Override
+    protected void migrate(PooledConnection connection) throws SQLException {
+        try (Statement stmt = connection.connection().createStatement()) {
+            stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS " + welcomedTable + " (" +
+                            "uuid BINARY(16) NOT NULL PRIMARY KEY, " +
+                            "welcomed_at BIGINT NOT NULL" +
+                            ")"
+            );
+            stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS " + metadataTable + " (" +
+                            "`key` VARCHAR(64) NOT NULL PRIMARY KEY, " +
+                            "value BIGINT NOT NULL" +
+                            ")"
+            );
+            stmt.execute(
+                    "INSERT IGNORE INTO " + metadataTable + " (`key`, value) VALUES ('unique_join_count', 0)"
+            );
+        }
+    }
+
+    @Override
+    protected String countWelcomedSql() {
+        return "SELECT COUNT(*) FROM " + welcomedTable;
+    }
+
+    @Override
+    protected String selectWelcomedSql() {
+        return "SELECT uuid FROM " + welcomedTable;
+    }
+
+    @Override
+    protected String existsWelcomedSql() {
+        return "SELECT 1 FROM " + welcomedTable + " WHERE uuid = ? LIMIT 1";
+    }
+
+    @Override
+    protected String insertWelcomedSql() {
+        return "INSERT IGNORE INTO " + welcomedTable + " (uuid, welcomed_at) VALUES (?, ?)";
+    }
+
+    @Override
+    protected String deleteWelcomedSql() {
+        return "DELETE FROM " + welcomedTable;
+    }
+
+    @Override
+    protected String selectJoinCountSql() {
+        return "SELECT value FROM " + metadataTable + " WHERE `key` = 'unique_join_count'";
+    }
+
+    @Override
+    protected String updateJoinCountSql() {
+        return "UPDATE " + metadataTable + " SET value = ? WHERE `key` = 'unique_join_count'";
+    }
+
+    /**
+     * Other servers update the same row, so the count is incremented by the rows this batch
+     * actually inserted and then read back, rather than overwritten.
+     */
+    @Override
+    protected long checkpointJoinCount(PooledConnection connection, List<WelcomeRecord> batch,
+                                       int inserted) throws SQLException {
+        if (inserted > 0) {
+            PreparedStatement increment = connection.prepare(
+                    "UPDATE " + metadataTable + " SET value = value + ? WHERE `key` = 'unique_join_count'"
+            );
+            increment.setLong(1, inserted);
+            increment.executeUpdate();
+        }
+
+        try (ResultSet rs = connection.prepare(selectJoinCountSql()).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+}
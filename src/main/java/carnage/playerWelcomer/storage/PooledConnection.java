@@ -0,0 +1,88 @@
+package carnage.playerWelcomer.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pooled JDBC connection with a cache of prepared statements tied to its lifecycle.
+ * Statements are compiled once per connection and reused, so hot queries skip SQL parsing.
+ * Connections idle for a while are validated before use and reopened if the server
+ * dropped them. Not thread-safe: the executor only ever hands a connection to one
+ * thread at a time.
+ */
+public final class PooledConnection implements AutoCloseable {
+    private static final long VALIDATION_INTERVAL_NANOS = 30_000_000_000L; // 30 seconds
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DatabaseExecutor.ConnectionFactory factory;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private Connection connection;
+    private long lastUsedNanos;
+
+    public PooledConnection(DatabaseExecutor.ConnectionFactory factory) throws SQLException {
+        this.factory = factory;
+        this.connection = factory.open();
+        this.lastUsedNanos = System.nanoTime();
+    }
+
+    /**
+     * Gets the underlying connection for one-off statements and transaction control.
+     */
+    public Connection connection() {
+        return connection;
+    }
+
+    /**
+     * Returns the cached statement for the given SQL, preparing it on first use.
+     * Callers must not close the returned statement, but must close its result sets.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Reopens the connection if it sat idle long enough to have been dropped and no longer responds.
+     * Called by the executor before handing the connection out.
+     */
+    void validate() throws SQLException {
+        long now = System.nanoTime();
+        if (now - lastUsedNanos > VALIDATION_INTERVAL_NANOS && !connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+            closeStatements();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // Already broken, nothing to release
+            }
+            connection = factory.open();
+        }
+        lastUsedNanos = now;
+    }
+
+    /**
+     * Closes every cached statement, then the connection itself.
+     */
+    @Override
+    public void close() throws SQLException {
+        closeStatements();
+        connection.close();
+    }
+
+    private void closeStatements() {
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // The connection close reports anything that matters
+            }
+        }
+        statements.clear();
+    }
+}
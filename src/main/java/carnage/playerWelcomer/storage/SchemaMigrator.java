@@ -0,0 +1,210 @@
+package carnage.playerWelcomer.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Brings the SQLite schema up to date, tracking the applied version in {@code PRAGMA user_version}.
+ * Each step runs in its own transaction, and large tables are copied in committed chunks,
+ * so an interrupted migration resumes where it stopped on the next startup.
+ */
+public final class SchemaMigrator {
+    /**
+     * Current schema version:
+     * 1 - legacy TEXT uuid and TEXT metadata tables,
+     * 2 - 16-byte BLOB uuid keys and INTEGER metadata in WITHOUT ROWID tables.
+     */
+    public static final int CURRENT_VERSION = 2;
+
+    private static final int MIGRATION_CHUNK_SIZE = 10_000;
+
+    private final Logger logger;
+
+    public SchemaMigrator(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Applies every pending migration step. Must run on the writer connection.
+     */
+    public void migrate(Connection connection) throws SQLException {
+        int version = readVersion(connection);
+
+        if (version > CURRENT_VERSION) {
+            throw new SQLException(
+                    "Database schema version " + version + " is newer than supported version " + CURRENT_VERSION
+            );
+        }
+
+        if (version < 1) {
+            inTransaction(connection, () -> createLegacySchema(connection));
+        }
+
+        if (version < 2) {
+            migrateToBinaryKeys(connection);
+        }
+    }
+
+    private int readVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void setVersion(Connection connection, int version) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA user_version = " + version);
+        }
+    }
+
+    /**
+     * Version 1: the original schema. Idempotent, so unversioned databases created by
+     * older releases are adopted as they are.
+     */
+    private void createLegacySchema(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS welcomed_players (" +
+                            "uuid TEXT PRIMARY KEY, " +
+                            "welcomed_at INTEGER NOT NULL" +
+                            ")"
+            );
+            stmt.execute(
+                    "CREATE TABLE IF NOT EXISTS metadata (" +
+                            "key TEXT PRIMARY KEY, " +
+                            "value TEXT NOT NULL" +
+                            ")"
+            );
+            stmt.execute(
+                    "INSERT OR IGNORE INTO metadata (key, value) VALUES ('unique_join_count', '0')"
+            );
+        }
+        setVersion(connection, 1);
+    }
+
+    /**
+     * Version 2: copies welcomed players into a BLOB-keyed WITHOUT ROWID table in chunks,
+     * deleting each copied chunk from the old table in the same transaction, then swaps
+     * the tables and retypes the metadata value as INTEGER.
+     */
+    private void migrateToBinaryKeys(Connection connection) throws SQLException {
+        inTransaction(connection, () -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(
+                        "CREATE TABLE IF NOT EXISTS welcomed_players_v2 (" +
+                                "uuid BLOB PRIMARY KEY, " +
+                                "welcomed_at INTEGER NOT NULL" +
+                                ") WITHOUT ROWID"
+                );
+            }
+        });
+
+        long migrated = 0L;
+        int copied;
+        do {
+            int[] chunk = new int[1];
+            inTransaction(connection, () -> chunk[0] = copyChunk(connection));
+            copied = chunk[0];
+            migrated += copied;
+
+            if (copied > 0) {
+                logger.info("Migrated " + migrated + " welcomed players to binary keys...");
+            }
+        } while (copied > 0);
+
+        inTransaction(connection, () -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("DROP TABLE welcomed_players");
+                stmt.execute("ALTER TABLE welcomed_players_v2 RENAME TO welcomed_players");
+
+                stmt.execute(
+                        "CREATE TABLE metadata_v2 (" +
+                                "key TEXT PRIMARY KEY, " +
+                                "value INTEGER NOT NULL" +
+                                ") WITHOUT ROWID"
+                );
+                stmt.execute("INSERT INTO metadata_v2 (key, value) SELECT key, CAST(value AS INTEGER) FROM metadata");
+                stmt.execute("DROP TABLE metadata");
+                stmt.execute("ALTER TABLE metadata_v2 RENAME TO metadata");
+                stmt.execute("INSERT OR IGNORE INTO metadata (key, value) VALUES ('unique_join_count', 0)");
+            }
+            setVersion(connection, 2);
+        });
+
+        if (migrated > 0) {
+            // Reclaim the pages freed by the old TEXT table
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("VACUUM");
+            }
+            logger.info("Schema migration to version 2 complete (" + migrated + " rows)");
+        }
+    }
+
+    /**
+     * Moves one chunk of rows from the legacy table into the binary table.
+     * @return number of legacy rows consumed
+     */
+    private int copyChunk(Connection connection) throws SQLException {
+        long lastRowId = -1L;
+        int consumed = 0;
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT rowid, uuid, welcomed_at FROM welcomed_players ORDER BY rowid LIMIT ?"
+        ); PreparedStatement insert = connection.prepareStatement(
+                "INSERT OR IGNORE INTO welcomed_players_v2 (uuid, welcomed_at) VALUES (?, ?)"
+        )) {
+            select.setInt(1, MIGRATION_CHUNK_SIZE);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    lastRowId = rs.getLong(1);
+                    consumed++;
+
+                    String uuid = rs.getString(2);
+                    try {
+                        insert.setBytes(1, UuidCodec.toBytes(UUID.fromString(uuid)));
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("Dropping malformed UUID during migration: " + uuid);
+                        continue;
+                    }
+                    insert.setLong(2, rs.getLong(3));
+                    insert.addBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        if (consumed > 0) {
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM welcomed_players WHERE rowid <= ?"
+            )) {
+                delete.setLong(1, lastRowId);
+                delete.executeUpdate();
+            }
+        }
+        return consumed;
+    }
+
+    @FunctionalInterface
+    private interface SqlBlock {
+        void run() throws SQLException;
+    }
+
+    private static void inTransaction(Connection connection, SqlBlock block) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            block.run();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
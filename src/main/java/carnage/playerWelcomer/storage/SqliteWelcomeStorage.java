@@ -0,0 +1,139 @@
+package carnage.playerWelcomer.storage;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Local SQLite backend in WAL mode. Readers are query-only connections so lookups
+ * proceed in parallel with the single writer. The schema is versioned by {@link SchemaMigrator}.
+ */
+public final class SqliteWelcomeStorage extends JdbcWelcomeStorage {
+    private final File databaseFile;
+    private final int busyTimeoutMs;
+
+    public SqliteWelcomeStorage(File databaseFile, Logger logger, int readerConnections,
+                                int queueCapacity, int busyTimeoutMs) {
+        super(logger, readerConnections, queueCapacity);
+        this.databaseFile = databaseFile;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public boolean isShared() {
+        return false;
+    }
+
+    @Override
+    protected void loadDriver() throws ClassNotFoundException {
+        Class.forName("org.sqlite.JDBC");
+    }
+
+    @Override
+    protected Connection openWriter() throws SQLException {
+        return openConnection(false);
+    }
+
+    @Override
+    protected Connection openReader() throws SQLException {
+        return openConnection(true);
+    }
+
+    /**
+     * Opens a SQLite connection. The writer enables WAL journaling, readers are query-only.
+     */
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            } else {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    /**
+     * With {@code synchronous = NORMAL} the latest WAL commits may not be on disk yet;
+     * a full checkpoint syncs the WAL and copies it into the database file.
+     */
+    @Override
+    protected void syncWrites(PooledConnection connection) throws SQLException {
+        try (Statement stmt = connection.connection().createStatement()) {
+            stmt.execute("PRAGMA wal_checkpoint(FULL)");
+        }
+    }
+
+    @Override
+    protected void migrate(PooledConnection connection) throws SQLException {
+        new SchemaMigrator(logger).migrate(connection.connection());
+    }
+
+    @Override
+    protected String countWelcomedSql() {
+        return "SELECT COUNT(*) FROM welcomed_players";
+    }
+
+    @Override
+    protected String selectWelcomedSql() {
+        return "SELECT uuid FROM welcomed_players";
+    }
+
+    @Override
+    protected String existsWelcomedSql() {
+        return "SELECT 1 FROM welcomed_players WHERE uuid = ? LIMIT 1";
+    }
+
+    @Override
+    protected String insertWelcomedSql() {
+        return "INSERT OR IGNORE INTO welcomed_players (uuid, welcomed_at) VALUES (?, ?)";
+    }
+
+    @Override
+    protected String deleteWelcomedSql() {
+        return "DELETE FROM welcomed_players";
+    }
+
+    @Override
+    protected String selectJoinCountSql() {
+        return "SELECT value FROM metadata WHERE key = 'unique_join_count'";
+    }
+
+    @Override
+    protected String updateJoinCountSql() {
+        return "UPDATE metadata SET value = ? WHERE key = 'unique_join_count'";
+    }
+
+    /**
+     * This server owns the file, so the count as of the newest welcome is authoritative.
+     */
+    @Override
+    protected long checkpointJoinCount(PooledConnection connection, List<WelcomeRecord> batch,
+                                       int inserted) throws SQLException {
+        long joinCount = 0L;
+        for (WelcomeRecord welcome : batch) {
+            joinCount = Math.max(joinCount, welcome.joinCount());
+        }
+
+        PreparedStatement checkpoint = connection.prepare(updateJoinCountSql());
+        checkpoint.setLong(1, joinCount);
+        checkpoint.executeUpdate();
+        return joinCount;
+    }
+}
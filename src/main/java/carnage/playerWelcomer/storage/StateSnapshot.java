@@ -0,0 +1,127 @@
+package carnage.playerWelcomer.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of the short-lived welcome state: join times and cooldowns, so a restart
+ * inside a player's welcome window does not drop them. Both tables are stored as
+ * {@code (uuid msb, uuid lsb, timestamp)} triples after a fixed header and followed by a
+ * CRC32 of everything before it. The file is read and written with one buffer each way;
+ * writes go to a temporary file that is synced and moved into place.
+ */
+public final class StateSnapshot {
+    private static final long MAGIC = 0x5057535441540001L; // "PWSTAT" + format version 1
+    private static final int HEADER_SIZE = 24; // magic, saved at, two entry counts
+    private static final int ENTRY_SIZE = 24;
+    private static final int CHECKSUM_SIZE = 4;
+
+    private final Path file;
+
+    public StateSnapshot(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Snapshot contents as interleaved {@code (msb, lsb, timestamp)} triples.
+     */
+    public record Contents(long savedAt, long[] joinTimes, long[] cooldowns) {
+    }
+
+    /**
+     * Replaces the snapshot with the given tables.
+     */
+    public void write(long[] joinTimes, long[] cooldowns) throws IOException {
+        int joinCount = joinTimes.length / 3;
+        int cooldownCount = cooldowns.length / 3;
+        ByteBuffer buffer = ByteBuffer.allocate(
+                HEADER_SIZE + (joinCount + cooldownCount) * ENTRY_SIZE + CHECKSUM_SIZE
+        );
+
+        buffer.putLong(MAGIC);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putInt(joinCount);
+        buffer.putInt(cooldownCount);
+        buffer.asLongBuffer().put(joinTimes, 0, joinCount * 3).put(cooldowns, 0, cooldownCount * 3);
+        buffer.position(buffer.limit() - CHECKSUM_SIZE);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().flip());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the snapshot.
+     * @return the contents, or null if there is no snapshot
+     * @throws IOException if the file cannot be read, is truncated or fails its checksum
+     */
+    public Contents read() throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        ByteBuffer buffer;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size < HEADER_SIZE + CHECKSUM_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid state snapshot size: " + size);
+            }
+
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                // Keep reading until full
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("State snapshot was truncated while reading");
+            }
+        }
+        buffer.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(buffer.limit() - CHECKSUM_SIZE));
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - CHECKSUM_SIZE)) {
+            throw new IOException("State snapshot checksum mismatch");
+        }
+
+        if (buffer.getLong() != MAGIC) {
+            throw new IOException("Unrecognized state snapshot format");
+        }
+        long savedAt = buffer.getLong();
+        int joinCount = buffer.getInt();
+        int cooldownCount = buffer.getInt();
+        if (joinCount < 0 || cooldownCount < 0
+                || ((long) joinCount + cooldownCount) * ENTRY_SIZE != buffer.remaining() - CHECKSUM_SIZE) {
+            throw new IOException("State snapshot entry counts do not match its size");
+        }
+
+        long[] joinTimes = new long[joinCount * 3];
+        long[] cooldowns = new long[cooldownCount * 3];
+        buffer.asLongBuffer().get(joinTimes).get(cooldowns);
+        return new Contents(savedAt, joinTimes, cooldowns);
+    }
+
+    /**
+     * Deletes the snapshot once it has been restored, so a later crash cannot bring back stale state.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,14 @@
+package carnage.playerWelcomer.storage;
+
+/**
+ * Raised when a storage backend cannot complete an operation.
+ */
+public class StorageException extends Exception {
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
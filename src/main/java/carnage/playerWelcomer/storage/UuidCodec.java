@@ -0,0 +1,52 @@
+package carnage.playerWelcomer.storage;
+
+import java.util.UUID;
+
+/**
+ * Converts UUIDs to and from their 16-byte big-endian binary form used as database keys.
+ */
+public final class UuidCodec {
+    public static final int BYTES = 16;
+
+    private UuidCodec() {
+    }
+
+    public static byte[] toBytes(UUID id) {
+        return toBytes(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public static byte[] toBytes(long msb, long lsb) {
+        byte[] bytes = new byte[BYTES];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (msb >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (lsb >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads the most significant half of a binary UUID.
+     */
+    public static long msb(byte[] bytes) {
+        return readLong(bytes, 0);
+    }
+
+    /**
+     * Reads the least significant half of a binary UUID.
+     */
+    public static long lsb(byte[] bytes) {
+        return readLong(bytes, 8);
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        return new UUID(msb(bytes), lsb(bytes));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0L;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,9 @@
+package carnage.playerWelcomer.storage;
+
+import java.util.UUID;
+
+/**
+ * A welcome to be persisted, with the unique join count it produced.
+ */
+public record WelcomeRecord(UUID playerId, long welcomedAt, long joinCount) {
+}
@@ -0,0 +1,76 @@
+package carnage.playerWelcomer.storage;
+
+import carnage.playerWelcomer.util.UuidSet;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Storage backend for welcomed players and the unique join count.
+ * Writes are asynchronous and batch-oriented; each backend serializes its own writes.
+ * Blocking methods must never be called from the main thread.
+ */
+public interface WelcomeStorage {
+
+    /**
+     * Human-readable backend name for logs.
+     */
+    String getName();
+
+    /**
+     * Whether other servers write to the same data. Shared backends may contain welcomes
+     * that happened after {@link #loadWelcomedPlayers()} was called.
+     */
+    boolean isShared();
+
+    /**
+     * Opens the backend and brings its schema up to date. Blocking.
+     */
+    void open() throws StorageException;
+
+    /**
+     * Loads every welcomed player into a new index. Blocking.
+     */
+    UuidSet loadWelcomedPlayers() throws StorageException;
+
+    /**
+     * Loads the persisted unique join count. Blocking.
+     */
+    long loadUniqueJoinCount() throws StorageException;
+
+    /**
+     * Checks the backend directly for a welcomed player. Blocking.
+     */
+    boolean isWelcomed(UUID playerId) throws StorageException;
+
+    /**
+     * Persists a batch of welcomes and checkpoints the join count.
+     * @return future with the join count as stored after the batch
+     */
+    CompletableFuture<Long> saveWelcomes(List<WelcomeRecord> batch);
+
+    /**
+     * Deletes every welcomed player and resets the join count.
+     * Ordered after all previously submitted writes.
+     */
+    CompletableFuture<Void> reset();
+
+    /**
+     * Forces everything written so far to durable storage.
+     * Ordered after all previously submitted writes.
+     */
+    CompletableFuture<Void> sync();
+
+    /**
+     * Executor for lookup work that may block on this backend.
+     */
+    Executor lookupExecutor();
+
+    /**
+     * Finishes queued writes and releases all resources. Blocking.
+     * @param timeoutMs how long to wait for queued work before releasing resources anyway
+     */
+    void close(long timeoutMs);
+}
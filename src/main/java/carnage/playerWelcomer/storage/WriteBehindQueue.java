@@ -0,0 +1,247 @@
+package carnage.playerWelcomer.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind buffer that collects pending records and hands them to a writer in batches.
+ * A flush fires once the buffer reaches the batch size or when the owner's timer calls
+ * {@link #flush()}, so a burst costs one transaction per batch. Flushes run one at a time,
+ * and records stay visible through {@link #contains(Object)} until their batch is stored.
+ * On shutdown {@link #drain(long)} closes the queue to new records and flushes until it is empty.
+ */
+public final class WriteBehindQueue<K, V> {
+    private static final long DRAIN_RETRY_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50L);
+
+    private final Function<List<V>, CompletableFuture<?>> writer;
+    private final int batchSize;
+    private final Logger logger;
+    private final ConcurrentHashMap<K, V> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean(false);
+
+    // Adds hold the read lock, so once closing or clearing takes the write lock no add is still in flight
+    private final ReentrantReadWriteLock addLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    // Tail of the flush chain; each flush starts after the previous one completed
+    private CompletableFuture<Void> lastFlush = CompletableFuture.completedFuture(null);
+
+    /**
+     * @param writer stores one batch asynchronously
+     * @param batchSize number of pending records that triggers a flush
+     */
+    public WriteBehindQueue(Function<List<V>, CompletableFuture<?>> writer, int batchSize, Logger logger) {
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.logger = logger;
+    }
+
+    /**
+     * Buffers a record, replacing any pending record with the same key.
+     * Triggers a flush once the batch size is reached.
+     * @return false if the queue was closed and the record was not accepted
+     */
+    public boolean add(K key, V value) {
+        addLock.readLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            pending.put(key, value);
+        } finally {
+            addLock.readLock().unlock();
+        }
+
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+        return true;
+    }
+
+    /**
+     * Runs an action that adds records together with state kept outside the queue, such as an
+     * index of the buffered keys. {@link #clearAndRun} and {@link #drain(long)} wait for the
+     * action, so they see either all of its changes or none. The action must not block.
+     * @return result of the action
+     */
+    public <T> T runWithAddLock(Supplier<T> action) {
+        addLock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            addLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the queue stopped accepting records. Stable within {@link #runWithAddLock}.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Checks whether a record is buffered but not yet stored.
+     */
+    public boolean contains(K key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * Number of buffered records.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Discards the buffer and runs an action in the flush chain, once every flush queued
+     * so far has completed. The buffer is emptied right before the action starts, so no
+     * batch taken earlier can be written after it; records added from then on are flushed
+     * after the action. Clearing and starting the action exclude adds, including actions
+     * run through {@link #runWithAddLock}. Used for resets that wipe the backing store.
+     * @return future of the action
+     */
+    public <T> CompletableFuture<T> clearAndRun(Supplier<CompletableFuture<T>> action) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<Void> previous;
+        synchronized (this) {
+            previous = lastFlush;
+            // Keep the chain going even if the action fails
+            lastFlush = result.handle((ignored, error) -> null);
+        }
+
+        // Outside the monitor: an add holding the read lock may be queueing a flush
+        previous.thenCompose(ignored -> {
+            addLock.writeLock().lock();
+            try {
+                pending.clear();
+                return action.get();
+            } finally {
+                addLock.writeLock().unlock();
+            }
+        }).whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Queues a flush unless one is already waiting to run.
+     */
+    public void flush() {
+        if (pending.isEmpty() || !flushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        enqueueFlush();
+    }
+
+    /**
+     * Queues an unconditional flush behind any flush in progress.
+     * @return future completed once the flush finished; failed records remain buffered
+     */
+    public CompletableFuture<Void> flushNow() {
+        return enqueueFlush();
+    }
+
+    /**
+     * Stops accepting records, then flushes until nothing is pending or the deadline passes.
+     * Failed batches are retried within the deadline. Blocking.
+     * @return number of records that could not be stored
+     */
+    public int drain(long timeoutMs) {
+        addLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            addLock.writeLock().unlock();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (!pending.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                logger.warning("Timed out draining pending records");
+                break;
+            }
+
+            int before = pending.size();
+            try {
+                flushNow().get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                logger.warning("Timed out draining pending records");
+                break;
+            } catch (ExecutionException e) {
+                // Flushes complete normally; failures are logged and retried above
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (pending.size() >= before) {
+                // The batch failed; back off briefly instead of spinning on the retry
+                LockSupport.parkNanos(Math.min(DRAIN_RETRY_BACKOFF_NANOS, deadline - System.nanoTime()));
+            }
+        }
+        return pending.size();
+    }
+
+    private synchronized CompletableFuture<Void> enqueueFlush() {
+        lastFlush = lastFlush.thenCompose(ignored -> writeBatch());
+        return lastFlush;
+    }
+
+    /**
+     * Writes everything buffered so far. Records are only removed after the batch
+     * succeeds, so a failed batch is retried by the next flush.
+     */
+    private CompletableFuture<Void> writeBatch() {
+        flushQueued.set(false);
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<K> keys = new ArrayList<>(pending.size());
+        List<V> values = new ArrayList<>(pending.size());
+        for (Map.Entry<K, V> entry : pending.entrySet()) {
+            keys.add(entry.getKey());
+            values.add(entry.getValue());
+        }
+
+        CompletableFuture<?> write;
+        try {
+            write = writer.apply(values);
+        } catch (RuntimeException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+
+        // Always complete normally so one failure does not break the chain
+        return write.handle((ignored, error) -> {
+            if (error != null) {
+                logger.warning("Failed to flush " + values.size() + " pending records, will retry: " + error.getMessage());
+            } else {
+                for (int i = 0; i < keys.size(); i++) {
+                    pending.remove(keys.get(i), values.get(i));
+                }
+            }
+            return null;
+        });
+    }
+}
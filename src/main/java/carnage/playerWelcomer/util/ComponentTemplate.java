@@ -0,0 +1,108 @@
+package carnage.playerWelcomer.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A legacy-coded message parsed once into Adventure components.
+ * The parsed tree is flattened into pre-built literal components and placeholder slots
+ * that remember the style in effect at their position, so rendering only creates one
+ * text component per placeholder and never runs the legacy deserializer.
+ * Messages without placeholders render to the same cached component every time.
+ */
+public final class ComponentTemplate {
+    private final Part[] parts;
+    private final Component staticComponent;
+
+    private ComponentTemplate(Part[] parts, Component staticComponent) {
+        this.parts = parts;
+        this.staticComponent = staticComponent;
+    }
+
+    /**
+     * Compiles a message.
+     * @param legacy the message with section-sign color codes
+     * @param placeholders placeholder tokens including their percent signs, e.g. {@code %player_name%};
+     *                     their order defines the order of values passed to {@link #render(String...)}
+     */
+    public static ComponentTemplate compile(String legacy, String... placeholders) {
+        Component parsed = LegacyComponentSerializer.legacySection().deserialize(legacy);
+        List<Part> parts = new ArrayList<>();
+        flatten(parsed, Style.empty(), placeholders, parts);
+
+        Part[] partArray = parts.toArray(Part[]::new);
+        boolean hasSlots = parts.stream().anyMatch(part -> part instanceof Slot);
+        return new ComponentTemplate(partArray, hasSlots ? null : build(partArray, new String[0]));
+    }
+
+    /**
+     * Appends the component and its children as a flat list of parts, each with its effective style.
+     */
+    private static void flatten(Component component, Style inherited, String[] placeholders, List<Part> parts) {
+        Style style = component.style().merge(inherited, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+        if (component instanceof TextComponent text) {
+            split(text.content(), style, placeholders, parts);
+        } else {
+            parts.add(new Literal(component.style(style).children(List.of())));
+        }
+
+        for (Component child : component.children()) {
+            flatten(child, style, placeholders, parts);
+        }
+    }
+
+    private static void split(String content, Style style, String[] placeholders, List<Part> parts) {
+        PlaceholderScanner.scan(content, placeholders, new PlaceholderScanner.Sink() {
+            @Override
+            public void literal(String text) {
+                if (!text.isEmpty()) {
+                    parts.add(new Literal(Component.text(text, style)));
+                }
+            }
+
+            @Override
+            public void placeholder(int index) {
+                parts.add(new Slot(index, style));
+            }
+        });
+    }
+
+    /**
+     * Renders the message. Values are inserted as plain text in the style at their position.
+     * @param values one value per placeholder, in the order given to {@link #compile(String, String...)}
+     */
+    public Component render(String... values) {
+        return staticComponent != null ? staticComponent : build(parts, values);
+    }
+
+    private static Component build(Part[] parts, String[] values) {
+        TextComponent.Builder builder = Component.text();
+        for (Part part : parts) {
+            builder.append(part.render(values));
+        }
+        return builder.build();
+    }
+
+    private interface Part {
+        Component render(String[] values);
+    }
+
+    private record Literal(Component component) implements Part {
+        @Override
+        public Component render(String[] values) {
+            return component;
+        }
+    }
+
+    private record Slot(int index, Style style) implements Part {
+        @Override
+        public Component render(String[] values) {
+            return Component.text(values[index], style);
+        }
+    }
+}
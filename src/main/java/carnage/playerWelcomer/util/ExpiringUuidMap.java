@@ -0,0 +1,425 @@
+package carnage.playerWelcomer.util;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent map from UUID to a primitive long timestamp whose entries expire a set time
+ * after their value. Keys and values live in one open-addressing table of
+ * {@code (msb, lsb, value)} triples, so puts never box. Every write also schedules its
+ * deadline on a {@link TimingWheel}, so {@link #expire(long)} only touches entries that
+ * are actually due, at O(1) amortized cost each.
+ * Reads use an optimistic lock and never allocate.
+ */
+public final class ExpiringUuidMap {
+    /**
+     * Returned by {@link #get(UUID)} for a missing key.
+     */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final StampedLock lock = new StampedLock();
+    private long ttlMillis;
+    private final TimingWheel wheel;
+    private final TimingWheel.ExpiryHandler expiryHandler = this::onExpired;
+    private int expired;
+
+    // Interleaved (msb, lsb, value) triples; a (0, 0) key marks an empty slot
+    private long[] table;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsNil;
+    private long nilValue;
+
+    /**
+     * @param ttlMillis time after an entry's value at which it expires
+     * @param tickMillis expiry resolution; entries are removed within one tick after their deadline
+     */
+    public ExpiringUuidMap(long ttlMillis, long tickMillis) {
+        this.ttlMillis = ttlMillis;
+        this.wheel = new TimingWheel(tickMillis, System.currentTimeMillis());
+        allocate(MIN_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity * 3];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Gets the value for a key, or {@link #ABSENT}. Entries past their deadline
+     * remain visible until the next {@link #expire(long)}.
+     */
+    public long get(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+
+        long stamp = lock.tryOptimisticRead();
+        long value = find(msb, lsb);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return find(msb, lsb);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long find(long msb, long lsb) {
+        if (msb == 0L && lsb == 0L) {
+            return containsNil ? nilValue : ABSENT;
+        }
+
+        long[] slots = table;
+        int capacity = slots.length / 3;
+        int mask = capacity - 1;
+        int index = hash(msb, lsb) & mask;
+
+        // Bounded by the capacity so a torn optimistic read cannot loop forever
+        for (int probes = 0; probes < capacity; probes++) {
+            int base = index * 3;
+            long slotMsb = slots[base];
+            long slotLsb = slots[base + 1];
+            if (slotMsb == msb && slotLsb == lsb) {
+                return slots[base + 2];
+            }
+            if (slotMsb == 0L && slotLsb == 0L) {
+                return ABSENT;
+            }
+            index = (index + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Sets the value for a key, replacing any previous value.
+     */
+    public void put(UUID id, long value) {
+        long stamp = lock.writeLock();
+        try {
+            store(id.getMostSignificantBits(), id.getLeastSignificantBits(), value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sets the value only if the key is absent.
+     * @return true if the value was stored
+     */
+    public boolean putIfAbsent(UUID id, long value) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            if (find(msb, lsb) != ABSENT) {
+                return false;
+            }
+            store(msb, lsb, value);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sets a timestamp unless the key holds one whose deadline has not passed at that time.
+     * Entries past their deadline count as absent even before {@link #expire(long)} removes them.
+     * @return true if the value was stored
+     */
+    public boolean putIfExpired(UUID id, long now) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            long current = find(msb, lsb);
+            if (current != ABSENT && now < current + ttlMillis) {
+                return false;
+            }
+            store(msb, lsb, now);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Replaces the value only if the key currently maps to the expected value.
+     * @return true if the value was replaced
+     */
+    public boolean replace(UUID id, long expected, long value) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            if (find(msb, lsb) != expected) {
+                return false;
+            }
+            store(msb, lsb, value);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a key.
+     */
+    public void remove(UUID id) {
+        long stamp = lock.writeLock();
+        try {
+            delete(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the key only if it currently maps to the expected value.
+     * @return true if the key was removed
+     */
+    public boolean remove(UUID id, long expected) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            if (find(msb, lsb) != expected) {
+                return false;
+            }
+            delete(msb, lsb);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every entry whose deadline has passed.
+     * Work is proportional to the number of writes that came due, not the map size.
+     * @return number of entries removed
+     */
+    public int expire(long now) {
+        long stamp = lock.writeLock();
+        try {
+            expired = 0;
+            wheel.advance(now, expiryHandler);
+            return expired;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void onExpired(long msb, long lsb, long deadline) {
+        // A later write to the same key scheduled its own, later deadline
+        if (find(msb, lsb) + ttlMillis == deadline) {
+            delete(msb, lsb);
+            expired++;
+        }
+    }
+
+    /**
+     * Changes the time-to-live of all entries, existing ones included. Reschedules every
+     * entry, which also drops deadlines left behind by rewritten keys; meant for reloads.
+     */
+    public void setTtl(long ttlMillis) {
+        long stamp = lock.writeLock();
+        try {
+            if (ttlMillis == this.ttlMillis) {
+                return;
+            }
+            this.ttlMillis = ttlMillis;
+
+            wheel.clear();
+            if (containsNil) {
+                wheel.schedule(0L, 0L, nilValue + ttlMillis);
+            }
+            long[] slots = table;
+            for (int i = 0; i < slots.length; i += 3) {
+                if (slots[i] != 0L || slots[i + 1] != 0L) {
+                    wheel.schedule(slots[i], slots[i + 1], slots[i + 2] + ttlMillis);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copies every entry, including ones past their deadline that were not expired yet.
+     * @return interleaved {@code (msb, lsb, value)} triples
+     */
+    public long[] toArray() {
+        long stamp = lock.readLock();
+        try {
+            long[] entries = new long[size * 3];
+            int count = 0;
+            if (containsNil) {
+                // The nil key is (0, 0), already in place
+                entries[2] = nilValue;
+                count = 3;
+            }
+
+            long[] slots = table;
+            for (int i = 0; i < slots.length; i += 3) {
+                if (slots[i] != 0L || slots[i + 1] != 0L) {
+                    System.arraycopy(slots, i, entries, count, 3);
+                    count += 3;
+                }
+            }
+            return entries;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stores entries produced by {@link #toArray()}, skipping those whose deadline has passed.
+     * @return number of entries stored
+     */
+    public int putAll(long[] entries, long now) {
+        long stamp = lock.writeLock();
+        try {
+            int stored = 0;
+            for (int i = 0; i + 2 < entries.length; i += 3) {
+                if (entries[i + 2] + ttlMillis > now) {
+                    store(entries[i], entries[i + 1], entries[i + 2]);
+                    stored++;
+                }
+            }
+            return stored;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every entry and shrinks the map back to its minimum size.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            allocate(MIN_CAPACITY);
+            size = 0;
+            containsNil = false;
+            wheel.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Callers hold the write lock
+
+    private void store(long msb, long lsb, long value) {
+        wheel.schedule(msb, lsb, value + ttlMillis);
+
+        if (msb == 0L && lsb == 0L) {
+            if (!containsNil) {
+                containsNil = true;
+                size++;
+            }
+            nilValue = value;
+            return;
+        }
+
+        if (insert(table, msb, lsb, value) && ++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    /**
+     * @return true if the key was new
+     */
+    private static boolean insert(long[] slots, long msb, long lsb, long value) {
+        int mask = slots.length / 3 - 1;
+        int index = hash(msb, lsb) & mask;
+
+        while (true) {
+            int base = index * 3;
+            long slotMsb = slots[base];
+            long slotLsb = slots[base + 1];
+            if (slotMsb == msb && slotLsb == lsb) {
+                slots[base + 2] = value;
+                return false;
+            }
+            if (slotMsb == 0L && slotLsb == 0L) {
+                slots[base] = msb;
+                slots[base + 1] = lsb;
+                slots[base + 2] = value;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        long[] old = table;
+        allocate(old.length / 3 * 2);
+        long[] slots = table;
+
+        for (int i = 0; i < old.length; i += 3) {
+            if (old[i] != 0L || old[i + 1] != 0L) {
+                insert(slots, old[i], old[i + 1], old[i + 2]);
+            }
+        }
+    }
+
+    private void delete(long msb, long lsb) {
+        if (msb == 0L && lsb == 0L) {
+            if (containsNil) {
+                containsNil = false;
+                size--;
+            }
+            return;
+        }
+
+        long[] slots = table;
+        int mask = slots.length / 3 - 1;
+        int index = hash(msb, lsb) & mask;
+        while (slots[index * 3] != msb || slots[index * 3 + 1] != lsb) {
+            if (slots[index * 3] == 0L && slots[index * 3 + 1] == 0L) {
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (slots[next * 3] != 0L || slots[next * 3 + 1] != 0L) {
+            int home = hash(slots[next * 3], slots[next * 3 + 1]) & mask;
+            // Move the entry back if the hole lies between its home slot and its position
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                System.arraycopy(slots, next * 3, slots, hole * 3, 3);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        slots[hole * 3] = 0L;
+        slots[hole * 3 + 1] = 0L;
+        slots[hole * 3 + 2] = 0L;
+        size--;
+    }
+}
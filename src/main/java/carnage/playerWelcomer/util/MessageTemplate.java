@@ -0,0 +1,74 @@
+package carnage.playerWelcomer.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message compiled once into literal segments and placeholder slots.
+ * Rendering appends each segment and value in a single pass into a builder sized from
+ * the literal length, instead of scanning the full string once per placeholder.
+ * Text between percent signs that is not a known placeholder is kept as a literal.
+ */
+public final class MessageTemplate {
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+    // literals[i] precedes slot i; the last literal follows the last slot
+    private final String[] literals;
+    private final int[] slots;
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, int[] slots, int literalLength) {
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Compiles a message.
+     * @param message the message, with color codes already translated
+     * @param placeholders placeholder tokens including their percent signs, e.g. {@code %player_name%};
+     *                     their order defines the order of values passed to {@link #render(String...)}
+     */
+    public static MessageTemplate compile(String message, String... placeholders) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        PlaceholderScanner.scan(message, placeholders, new PlaceholderScanner.Sink() {
+            @Override
+            public void literal(String text) {
+                literals.add(text);
+            }
+
+            @Override
+            public void placeholder(int index) {
+                slots.add(index);
+            }
+        });
+
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new MessageTemplate(literals.toArray(String[]::new), slotArray, literalLength);
+    }
+
+    /**
+     * Renders the message.
+     * @param values one value per placeholder, in the order given to {@link #compile(String, String...)}
+     */
+    public String render(String... values) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder builder = new StringBuilder(literalLength + slots.length * ESTIMATED_VALUE_LENGTH);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]).append(values[slots[i]]);
+        }
+        return builder.append(literals[slots.length]).toString();
+    }
+}
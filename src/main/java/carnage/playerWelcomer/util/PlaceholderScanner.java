@@ -0,0 +1,59 @@
+package carnage.playerWelcomer.util;
+
+/**
+ * Splits text into literal segments and placeholder tokens, shared by the message templates.
+ * Text between percent signs that is not a known placeholder stays part of the literal.
+ */
+final class PlaceholderScanner {
+
+    /**
+     * Receives the segments of a text in order.
+     */
+    interface Sink {
+        /**
+         * A literal segment. Called before every placeholder and once at the end, so it may be empty.
+         */
+        void literal(String text);
+
+        /**
+         * @param index index of the placeholder in the array given to {@link #scan(String, String[], Sink)}
+         */
+        void placeholder(int index);
+    }
+
+    private PlaceholderScanner() {
+    }
+
+    /**
+     * @param placeholders placeholder tokens including their percent signs, e.g. {@code %player_name%}
+     */
+    static void scan(String text, String[] placeholders, Sink sink) {
+        int segmentStart = 0;
+        int index = text.indexOf('%');
+
+        while (index >= 0) {
+            int placeholder = placeholderAt(text, index, placeholders);
+            if (placeholder < 0) {
+                index = text.indexOf('%', index + 1);
+                continue;
+            }
+
+            sink.literal(text.substring(segmentStart, index));
+            sink.placeholder(placeholder);
+
+            segmentStart = index + placeholders[placeholder].length();
+            index = text.indexOf('%', segmentStart);
+        }
+
+        sink.literal(text.substring(segmentStart));
+    }
+
+    private static int placeholderAt(String text, int index, String[] placeholders) {
+        for (int i = 0; i < placeholders.length; i++) {
+            if (text.startsWith(placeholders[i], index)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,131 @@
+package carnage.playerWelcomer.util;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free per-player token bucket. Each bucket is a single {@link AtomicLong} packing the
+ * last refill time (upper 42 bits, milliseconds) and the remaining tokens in thousandths
+ * (lower 22 bits), updated with one CAS. Times wrap around after 2^42 ms and are compared
+ * modulo that. A full bucket holds {@code maxRequests} tokens and refills completely over
+ * {@code windowMs}. Only the first call after a bucket was evicted
+ * allocates; {@link #evictIdle()} drops buckets that have refilled completely.
+ */
+public final class RateLimiter {
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long TIME_MASK = -1L >>> TOKEN_BITS;
+    private static final long MILLI_TOKENS = 1_000L;
+
+    /**
+     * Largest supported {@code maxRequests}, bounded by the token bits.
+     */
+    public static final int MAX_CAPACITY = (int) (TOKEN_MASK / MILLI_TOKENS);
+
+    private final ConcurrentHashMap<UUID, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Function<UUID, AtomicLong> newBucket;
+    private final long capacityMilli;
+    private final long windowMs;
+    private final LongSupplier clockMs;
+
+    /**
+     * @param maxRequests burst size, between 1 and {@link #MAX_CAPACITY}
+     * @param windowMs time for an empty bucket to refill completely
+     */
+    public RateLimiter(int maxRequests, long windowMs) {
+        this(maxRequests, windowMs, monotonicMillis());
+    }
+
+    /**
+     * @param clockMs monotonic clock in milliseconds
+     */
+    RateLimiter(int maxRequests, long windowMs, LongSupplier clockMs) {
+        if (maxRequests < 1 || maxRequests > MAX_CAPACITY) {
+            throw new IllegalArgumentException("maxRequests must be between 1 and " + MAX_CAPACITY + ": " + maxRequests);
+        }
+        if (windowMs < 1) {
+            throw new IllegalArgumentException("windowMs must be positive: " + windowMs);
+        }
+        this.capacityMilli = maxRequests * MILLI_TOKENS;
+        this.windowMs = windowMs;
+        this.clockMs = clockMs;
+        this.newBucket = id -> new AtomicLong(pack(now(), capacityMilli));
+    }
+
+    /**
+     * Takes one token from the player's bucket.
+     * @return false if the bucket is empty
+     */
+    public boolean tryAcquire(UUID playerId) {
+        AtomicLong bucket = buckets.get(playerId);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(playerId, newBucket);
+        }
+
+        long now = now();
+        while (true) {
+            long state = bucket.get();
+            long tokens = refill(state, now);
+            if (tokens < MILLI_TOKENS) {
+                return false;
+            }
+            // Keep the stamp of a racing caller whose clock read was later than ours
+            long time = elapsed(state, now) > 0L ? now : state >>> TOKEN_BITS;
+            if (bucket.compareAndSet(state, pack(time, tokens - MILLI_TOKENS))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes buckets that have been idle long enough to be full again. A caller racing
+     * with eviction at worst consumes from the dropped bucket and starts the next one full.
+     * @return number of buckets removed
+     */
+    public int evictIdle() {
+        long now = now();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> refill(bucket.get(), now) >= capacityMilli);
+        return before - buckets.size();
+    }
+
+    /**
+     * Number of tracked players.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Token count of the given state after refilling up to {@code now}.
+     */
+    private long refill(long state, long now) {
+        long elapsed = Math.min(elapsed(state, now), windowMs);
+        return Math.min(capacityMilli, (state & TOKEN_MASK) + elapsed * capacityMilli / windowMs);
+    }
+
+    /**
+     * Milliseconds from the state's refill time to {@code now}, or 0 if the refill time is
+     * ahead. Differences in the upper half of the time range count as ahead.
+     */
+    private static long elapsed(long state, long now) {
+        long elapsed = (now - (state >>> TOKEN_BITS)) & TIME_MASK;
+        return elapsed > TIME_MASK >>> 1 ? 0L : elapsed;
+    }
+
+    private long now() {
+        return clockMs.getAsLong() & TIME_MASK;
+    }
+
+    private static LongSupplier monotonicMillis() {
+        long origin = System.nanoTime();
+        return () -> (System.nanoTime() - origin) / 1_000_000L;
+    }
+
+    private static long pack(long timeMs, long milliTokens) {
+        return (timeMs << TOKEN_BITS) | milliTokens;
+    }
+}
@@ -0,0 +1,175 @@
+package carnage.playerWelcomer.util;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of UUID deadlines. Four levels of 64 slots each cover
+ * 64, 64^2, 64^3 and 64^4 ticks; an entry is placed on the lowest level whose span reaches
+ * its deadline and cascades down as the wheel turns, so scheduling is O(1) and every entry
+ * is moved at most three times before it fires. Advancing only touches slots that come due.
+ * Entries are stored as primitive {@code (msb, lsb, deadline)} triples.
+ * Not thread-safe: the owner serializes access.
+ */
+public final class TimingWheel {
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+    private static final int INITIAL_BUCKET_ENTRIES = 4;
+
+    /**
+     * Receives entries whose deadline has passed.
+     */
+    @FunctionalInterface
+    public interface ExpiryHandler {
+        void expired(long msb, long lsb, long deadline);
+    }
+
+    private final long tickMillis;
+
+    // [level * SLOTS + slot] -> interleaved (msb, lsb, deadline) triples
+    private final long[][] buckets = new long[LEVELS * SLOTS][];
+    private final int[] bucketSizes = new int[LEVELS * SLOTS];
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis wheel resolution; entries fire within one tick after their deadline
+     * @param now current time in milliseconds
+     */
+    public TimingWheel(long tickMillis, long now) {
+        this.tickMillis = tickMillis;
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * Schedules an entry to fire once {@code deadline} has passed.
+     */
+    public void schedule(long msb, long lsb, long deadline) {
+        // The current tick was already drained, so anything due fires on the next one
+        place(msb, lsb, deadline, currentTick + 1);
+        size++;
+    }
+
+    private void place(long msb, long lsb, long deadline, long earliestTick) {
+        // Round up so entries never fire early
+        long tick = Math.max(Math.floorDiv(deadline + tickMillis - 1, tickMillis), earliestTick);
+        long delta = Math.min(tick - currentTick, MAX_SPAN - 1);
+        tick = currentTick + delta;
+
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        append(level * SLOTS + slot, msb, lsb, deadline);
+    }
+
+    private void append(int bucket, long msb, long lsb, long deadline) {
+        long[] entries = buckets[bucket];
+        int count = bucketSizes[bucket];
+        if (entries == null) {
+            entries = new long[INITIAL_BUCKET_ENTRIES * 3];
+            buckets[bucket] = entries;
+        } else if (count * 3 == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            buckets[bucket] = entries;
+        }
+
+        int base = count * 3;
+        entries[base] = msb;
+        entries[base + 1] = lsb;
+        entries[base + 2] = deadline;
+        bucketSizes[bucket] = count + 1;
+    }
+
+    /**
+     * Turns the wheel up to {@code now}, handing every entry that came due to the handler.
+     * @return number of entries fired
+     */
+    public int advance(long now, ExpiryHandler handler) {
+        long targetTick = now / tickMillis;
+        int fired = 0;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Once the levels below wrapped, pull the next slot of each higher level down, top first
+            int top = 0;
+            while (top + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+                top++;
+            }
+            for (int level = top; level >= 1; level--) {
+                cascade(level * SLOTS + ((int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+            }
+
+            int bucket = (int) currentTick & SLOT_MASK;
+            int count = bucketSizes[bucket];
+            if (count == 0) {
+                continue;
+            }
+
+            long[] entries = detach(bucket);
+            size -= count;
+            fired += count;
+            for (int i = 0; i < count * 3; i += 3) {
+                handler.expired(entries[i], entries[i + 1], entries[i + 2]);
+            }
+            reattach(bucket, entries);
+        }
+        return fired;
+    }
+
+    private void cascade(int bucket) {
+        int count = bucketSizes[bucket];
+        if (count == 0) {
+            return;
+        }
+
+        long[] entries = detach(bucket);
+        for (int i = 0; i < count * 3; i += 3) {
+            // Entries due on this very tick land in the slot drained right after
+            place(entries[i], entries[i + 1], entries[i + 2], currentTick);
+        }
+        reattach(bucket, entries);
+    }
+
+    /**
+     * Empties a bucket and takes its array, so entries placed while iterating cannot overwrite it.
+     */
+    private long[] detach(int bucket) {
+        long[] entries = buckets[bucket];
+        buckets[bucket] = null;
+        bucketSizes[bucket] = 0;
+        return entries;
+    }
+
+    /**
+     * Hands a drained array back for reuse, unless the bucket got a new one meanwhile
+     * or the array grew during a burst; idle slots stay small.
+     */
+    private void reattach(int bucket, long[] entries) {
+        if (buckets[bucket] == null && entries.length <= INITIAL_BUCKET_ENTRIES * 3 * 16) {
+            buckets[bucket] = entries;
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = null;
+            bucketSizes[i] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Number of scheduled entries, including ones whose key was rewritten since.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,243 @@
+package carnage.playerWelcomer.util;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Compact concurrent set of UUIDs stored as their two longs in an open-addressing table.
+ * Lookups use an optimistic read and never allocate, so membership checks cost a few
+ * array reads. Writes take an exclusive lock; they are rare compared to lookups.
+ */
+public final class UuidSet {
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Interleaved (msb, lsb) pairs; (0, 0) marks an empty slot
+    private long[] table;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsNil;
+
+    public UuidSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of entries the set should hold without resizing
+     */
+    public UuidSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR);
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity * 2];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Package-private so tests can build colliding keys
+    static int hash(long msb, long lsb) {
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    public boolean contains(UUID id) {
+        return contains(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    /**
+     * Lock-free in the common case; falls back to a read lock if a writer interfered.
+     */
+    public boolean contains(long msb, long lsb) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = find(msb, lsb);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return find(msb, lsb);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean find(long msb, long lsb) {
+        if (msb == 0L && lsb == 0L) {
+            return containsNil;
+        }
+
+        long[] slots = table;
+        int mask = (slots.length >> 1) - 1;
+        int index = hash(msb, lsb) & mask;
+
+        // Bounded by the table length so a torn optimistic read cannot loop forever
+        for (int probes = 0; probes <= mask; probes++) {
+            long slotMsb = slots[index << 1];
+            long slotLsb = slots[(index << 1) + 1];
+            if (slotMsb == msb && slotLsb == lsb) {
+                return true;
+            }
+            if (slotMsb == 0L && slotLsb == 0L) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean add(UUID id) {
+        return add(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    /**
+     * Adds a UUID to the set.
+     * @return true if it was not already present
+     */
+    public boolean add(long msb, long lsb) {
+        long stamp = lock.writeLock();
+        try {
+            if (msb == 0L && lsb == 0L) {
+                if (containsNil) {
+                    return false;
+                }
+                containsNil = true;
+                size++;
+                return true;
+            }
+
+            if (!insert(table, msb, lsb)) {
+                return false;
+            }
+
+            if (++size > resizeThreshold) {
+                resize();
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static boolean insert(long[] slots, long msb, long lsb) {
+        int mask = (slots.length >> 1) - 1;
+        int index = hash(msb, lsb) & mask;
+
+        while (true) {
+            long slotMsb = slots[index << 1];
+            long slotLsb = slots[(index << 1) + 1];
+            if (slotMsb == msb && slotLsb == lsb) {
+                return false;
+            }
+            if (slotMsb == 0L && slotLsb == 0L) {
+                slots[index << 1] = msb;
+                slots[(index << 1) + 1] = lsb;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        long[] old = table;
+        allocate(old.length); // doubles the slot count, since old.length is 2x capacity
+        long[] slots = table;
+
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0L || old[i + 1] != 0L) {
+                insert(slots, old[i], old[i + 1]);
+            }
+        }
+    }
+
+    public boolean remove(UUID id) {
+        return remove(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    /**
+     * Removes a UUID from the set. Entries after it in the probe run are shifted back,
+     * so no tombstones are left behind.
+     * @return true if it was present
+     */
+    public boolean remove(long msb, long lsb) {
+        long stamp = lock.writeLock();
+        try {
+            if (msb == 0L && lsb == 0L) {
+                if (!containsNil) {
+                    return false;
+                }
+                containsNil = false;
+                size--;
+                return true;
+            }
+
+            long[] slots = table;
+            int mask = (slots.length >> 1) - 1;
+            int index = hash(msb, lsb) & mask;
+            while (slots[index << 1] != msb || slots[(index << 1) + 1] != lsb) {
+                if (slots[index << 1] == 0L && slots[(index << 1) + 1] == 0L) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+
+            // Move later entries of the run into the gap unless that would put them before their home slot
+            int gap = index;
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                long nextMsb = slots[next << 1];
+                long nextLsb = slots[(next << 1) + 1];
+                if (nextMsb == 0L && nextLsb == 0L) {
+                    break;
+                }
+                int home = hash(nextMsb, nextLsb) & mask;
+                boolean homeInRange = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+                if (!homeInRange) {
+                    slots[gap << 1] = nextMsb;
+                    slots[(gap << 1) + 1] = nextLsb;
+                    gap = next;
+                }
+            }
+            slots[gap << 1] = 0L;
+            slots[(gap << 1) + 1] = 0L;
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every entry and shrinks the table back to its minimum size.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            allocate(MIN_CAPACITY);
+            size = 0;
+            containsNil = false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
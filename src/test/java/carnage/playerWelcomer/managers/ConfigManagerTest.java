@@ -0,0 +1,78 @@
+package carnage.playerWelcomer.managers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks color translation for every supported format and for input that only looks like one.
+ */
+class ConfigManagerTest {
+    private static final String GREEN = section("&x&0&0&f&f&0&0");
+
+    /**
+     * Turns {@code &} color codes into section-sign codes, as color translation leaves them.
+     */
+    private static String section(String message) {
+        return message.replace('&', '\u00A7');
+    }
+
+    private static void assertUnchanged(String message) {
+        assertEquals(message, ConfigManager.translateColors(message));
+    }
+
+    @Test
+    void hexFormatsBecomeTheSameSectionSequence() {
+        assertEquals(GREEN + "Hi", ConfigManager.translateColors("#00FF00Hi"));
+        assertEquals(GREEN + "Hi", ConfigManager.translateColors("&#00ff00Hi"));
+        assertEquals(GREEN + "Hi", ConfigManager.translateColors("<#00Ff00>Hi"));
+        assertEquals(GREEN + "Hi", ConfigManager.translateColors("&x&0&0&F&F&0&0Hi"));
+    }
+
+    @Test
+    void legacyCodesAreLowercased() {
+        assertEquals(section("&aGreen &lBold &rplain &kx"), ConfigManager.translateColors("&AGreen &LBold &Rplain &Kx"));
+        assertEquals(section("&0&9&f"), ConfigManager.translateColors("&0&9&f"));
+    }
+
+    @Test
+    void codesAtTheEndOfTheMessage() {
+        assertEquals("Hi " + GREEN, ConfigManager.translateColors("Hi #00FF00"));
+        assertEquals("Hi " + GREEN, ConfigManager.translateColors("Hi &#00FF00"));
+        assertEquals("Hi " + GREEN, ConfigManager.translateColors("Hi <#00FF00>"));
+        assertEquals(section("Hi &a"), ConfigManager.translateColors("Hi &a"));
+        assertUnchanged("Price: 100&");
+        assertUnchanged("#");
+    }
+
+    @Test
+    void truncatedHexIsLeftAlone() {
+        assertUnchanged("#00FF0");
+        assertUnchanged("&#00FF0");
+        assertUnchanged("<#00FF0>");
+        assertUnchanged("Hi #00F");
+
+        // Without the closing bracket only the bare hex color is translated
+        assertEquals("<" + GREEN + " Hi", ConfigManager.translateColors("<#00FF00 Hi"));
+    }
+
+    @Test
+    void invalidHexAndUnknownCodesAreLeftAlone() {
+        assertUnchanged("#00FG00 and &#GG0000");
+        assertUnchanged("<#00FF0G>");
+        assertUnchanged("&z&& &");
+
+        // Fullwidth and other non-ASCII digits are not hex digits
+        assertUnchanged("#\uFF10\uFF10FF00");
+        assertUnchanged("&#00FF0\u0661");
+    }
+
+    @Test
+    void messageWithoutCodesIsReturnedAsItIs() {
+        String message = "Welcome to the server!";
+
+        assertSame(message, ConfigManager.translateColors(message));
+        assertEquals("", ConfigManager.translateColors(null));
+    }
+}
@@ -0,0 +1,117 @@
+package carnage.playerWelcomer.managers;
+
+import carnage.playerWelcomer.PlayerWelcomer;
+import carnage.playerWelcomer.managers.DataManager.WelcomeClaim;
+import carnage.playerWelcomer.metrics.CountingScheduler;
+import carnage.playerWelcomer.metrics.MetricsRegistry;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the data manager on the journal backend in a temporary folder. The plugin and its
+ * config are mocks; the scheduler never runs the timers, so only direct calls do any work.
+ */
+class DataManagerTest {
+    private static final int WELCOMERS = 16;
+
+    @TempDir
+    Path dataFolder;
+
+    private DataManager dataManager;
+
+    @BeforeEach
+    void create() {
+        ConfigManager config = mock(ConfigManager.class);
+        when(config.getDatabaseType()).thenReturn("journal");
+        when(config.getDatabaseQueueCapacity()).thenReturn(1_000);
+        when(config.getDatabaseWriteBatchSize()).thenReturn(100);
+        when(config.getDatabaseFlushIntervalTicks()).thenReturn(20L);
+        when(config.getDatabaseShutdownTimeoutMs()).thenReturn(5_000L);
+        when(config.getWelcomeCooldown()).thenReturn(60);
+        when(config.getWelcomeWindow()).thenReturn(60);
+
+        MetricsRegistry metrics = new MetricsRegistry();
+        PlayerWelcomer plugin = mock(PlayerWelcomer.class);
+        when(plugin.getConfigManager()).thenReturn(config);
+        when(plugin.getMetrics()).thenReturn(metrics);
+        when(plugin.getScheduler()).thenReturn(new CountingScheduler(mock(BukkitScheduler.class), metrics));
+        when(plugin.getPluginLogger()).thenReturn(Logger.getLogger(DataManagerTest.class.getName()));
+        when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+
+        dataManager = new DataManager(plugin);
+    }
+
+    @AfterEach
+    void shutdown() {
+        dataManager.shutdown();
+    }
+
+    @Test
+    void racingWelcomersClaimEachNewPlayerOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WELCOMERS);
+        try {
+            for (int round = 1; round <= 50; round++) {
+                UUID target = UUID.randomUUID();
+                dataManager.recordJoinTime(target);
+
+                CyclicBarrier start = new CyclicBarrier(WELCOMERS);
+                List<Future<WelcomeClaim>> claims = new ArrayList<>(WELCOMERS);
+                for (int i = 0; i < WELCOMERS; i++) {
+                    UUID welcomer = UUID.randomUUID();
+                    claims.add(pool.submit(() -> {
+                        start.await();
+                        return dataManager.tryClaimWelcome(target, welcomer);
+                    }));
+                }
+
+                int claimed = 0;
+                for (Future<WelcomeClaim> claim : claims) {
+                    WelcomeClaim result = claim.get(5, TimeUnit.SECONDS);
+                    if (result == WelcomeClaim.CLAIMED) {
+                        claimed++;
+                    } else {
+                        assertEquals(WelcomeClaim.ALREADY_WELCOMED, result);
+                    }
+                }
+                assertEquals(1, claimed);
+                assertEquals(round, dataManager.getUniqueJoinCount());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void onlyTheWinningWelcomerIsPutOnCooldown() {
+        UUID target = UUID.randomUUID();
+        UUID winner = UUID.randomUUID();
+        UUID loser = UUID.randomUUID();
+        dataManager.recordJoinTime(target);
+
+        assertEquals(WelcomeClaim.CLAIMED, dataManager.tryClaimWelcome(target, winner));
+        assertEquals(WelcomeClaim.ALREADY_WELCOMED, dataManager.tryClaimWelcome(target, loser));
+
+        assertTrue(dataManager.isOnCooldown(winner));
+        assertFalse(dataManager.isOnCooldown(loser));
+    }
+}
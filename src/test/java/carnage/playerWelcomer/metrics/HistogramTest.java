@@ -0,0 +1,115 @@
+package carnage.playerWelcomer.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the bucket layout and that quantiles stay within one bucket of the exact value.
+ */
+class HistogramTest {
+    private static final int BUCKETS = 960;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    @Test
+    void smallValuesHaveABucketEach() {
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, Histogram.bucketIndex(value));
+            assertEquals(value, Histogram.bucketUpperBound(value));
+        }
+        assertEquals(16, Histogram.bucketIndex(16L));
+    }
+
+    @Test
+    void bucketsTileTheWholeRangeOfALong() {
+        for (int index = 0; index < BUCKETS - 1; index++) {
+            long upper = Histogram.bucketUpperBound(index);
+            assertEquals(index, Histogram.bucketIndex(upper), "upper bound of bucket " + index);
+            assertEquals(index + 1, Histogram.bucketIndex(upper + 1L), "value after bucket " + index);
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.bucketUpperBound(BUCKETS - 1));
+        assertEquals(BUCKETS - 1, Histogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void bucketsAreAtMostASixteenthOfTheirLowestValueWide() {
+        for (int index = 16; index < BUCKETS; index++) {
+            long lowest = Histogram.bucketUpperBound(index - 1) + 1L;
+            long width = Histogram.bucketUpperBound(index) - lowest + 1L;
+            assertTrue(width <= lowest / 16, "bucket " + index + " is " + width + " wide from " + lowest);
+        }
+    }
+
+    @Test
+    void quantilesOfAUniformDistribution() {
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1L;
+        }
+        assertQuantilesWithinABucket(values);
+    }
+
+    @Test
+    void quantilesOfAnExponentialDistribution() {
+        // Durations in nanoseconds with a mean of 1 ms, as the timers record them
+        Random random = new Random(42L);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (-Math.log(1.0 - random.nextDouble()) * 1_000_000.0);
+        }
+        assertQuantilesWithinABucket(values);
+    }
+
+    /**
+     * A quantile is reported as the upper end of the bucket holding the exact value, so it is
+     * never below it and at most a sixteenth above it.
+     */
+    private static void assertQuantilesWithinABucket(long[] values) {
+        Histogram histogram = new Histogram();
+        for (long value : values) {
+            histogram.record(value);
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double quantile : QUANTILES) {
+            long exact = sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+            long reported = snapshot.valueAtQuantile(quantile);
+            assertTrue(reported >= exact && reported <= exact + exact / 16,
+                    "p" + quantile + " reported " + reported + " for " + exact);
+        }
+        assertEquals(sorted[sorted.length - 1], snapshot.valueAtQuantile(1.0));
+    }
+
+    @Test
+    void snapshotKeepsCountSumAndMax() {
+        Histogram histogram = new Histogram();
+        histogram.record(10L);
+        histogram.record(100L);
+        histogram.record(-5L);
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(3L, snapshot.count());
+        assertEquals(110L, snapshot.sum());
+        assertEquals(100L, snapshot.max());
+        assertEquals(110.0 / 3, snapshot.mean(), 1e-9);
+
+        // Negative values count as zero
+        assertEquals(0L, snapshot.valueAtQuantile(0.1));
+        // 100 falls into the bucket up to 103, but quantiles never exceed the largest recording
+        assertEquals(100L, snapshot.valueAtQuantile(0.999));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        Histogram.Snapshot snapshot = new Histogram().snapshot();
+
+        assertEquals(0L, snapshot.valueAtQuantile(0.99));
+        assertEquals(0.0, snapshot.mean());
+    }
+}
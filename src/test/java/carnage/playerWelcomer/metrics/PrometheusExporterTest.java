@@ -0,0 +1,92 @@
+package carnage.playerWelcomer.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compares the rendered exposition text against golden output.
+ */
+class PrometheusExporterTest {
+
+    private static MetricsRegistry registry() {
+        MetricsRegistry registry = new MetricsRegistry();
+        String help = "Rewards given to welcomers";
+        registry.counter("playerwelcomer_rewards_total", help, "type", "currency", "result", "success").add(3L);
+        registry.counter("playerwelcomer_rewards_total", help, "type", "crate_key", "result", "failure").increment();
+        registry.counter("playerwelcomer_joins_total", "Player joins").add(5L);
+
+        // Nine fast deposits and one slow one: p50 and p90 land in the 1 ms bucket, p99 on the maximum
+        Timer deposits = registry.timer("playerwelcomer_currency_deposit_seconds", "Time to deposit currency", "currency", "Coins");
+        for (int i = 0; i < 9; i++) {
+            deposits.record(1_000_000L);
+        }
+        deposits.record(250_000_000L);
+
+        registry.timer("playerwelcomer_storage_batch_seconds", "Time to store a batch of welcomes");
+        return registry;
+    }
+
+    @Test
+    void formatMatchesTheGoldenOutput() {
+        String expected = """
+                # HELP playerwelcomer_currency_deposit_seconds Time to deposit currency
+                # TYPE playerwelcomer_currency_deposit_seconds summary
+                playerwelcomer_currency_deposit_seconds{currency="Coins",quantile="0.5"} 0.001015807
+                playerwelcomer_currency_deposit_seconds{currency="Coins",quantile="0.9"} 0.001015807
+                playerwelcomer_currency_deposit_seconds{currency="Coins",quantile="0.99"} 0.250000000
+                playerwelcomer_currency_deposit_seconds{currency="Coins",quantile="0.999"} 0.250000000
+                playerwelcomer_currency_deposit_seconds_sum{currency="Coins"} 0.259000000
+                playerwelcomer_currency_deposit_seconds_count{currency="Coins"} 10
+                # HELP playerwelcomer_joins_total Player joins
+                # TYPE playerwelcomer_joins_total counter
+                playerwelcomer_joins_total 5
+                # HELP playerwelcomer_rewards_total Rewards given to welcomers
+                # TYPE playerwelcomer_rewards_total counter
+                playerwelcomer_rewards_total{type="crate_key",result="failure"} 1
+                playerwelcomer_rewards_total{type="currency",result="success"} 3
+                # HELP playerwelcomer_storage_batch_seconds Time to store a batch of welcomes
+                # TYPE playerwelcomer_storage_batch_seconds summary
+                playerwelcomer_storage_batch_seconds{quantile="0.5"} 0.000000000
+                playerwelcomer_storage_batch_seconds{quantile="0.9"} 0.000000000
+                playerwelcomer_storage_batch_seconds{quantile="0.99"} 0.000000000
+                playerwelcomer_storage_batch_seconds{quantile="0.999"} 0.000000000
+                playerwelcomer_storage_batch_seconds_sum 0.000000000
+                playerwelcomer_storage_batch_seconds_count 0
+                """;
+
+        assertEquals(expected, PrometheusExporter.format(registry()));
+    }
+
+    @Test
+    void labelValuesAreEscaped() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("playerwelcomer_currency_deposits_total", "Deposits", "currency", "a\\b\"c\nd").increment();
+
+        String expected = """
+                # HELP playerwelcomer_currency_deposits_total Deposits
+                # TYPE playerwelcomer_currency_deposits_total counter
+                playerwelcomer_currency_deposits_total{currency="a\\\\b\\"c\\nd"} 1
+                """;
+        assertEquals(expected, PrometheusExporter.format(registry));
+    }
+
+    @Test
+    void exportReplacesTheFileWithoutLeavingATemporaryOne(@TempDir Path folder) throws Exception {
+        Path file = folder.resolve("playerwelcomer.prom");
+        Files.writeString(file, "stale");
+        MetricsRegistry registry = registry();
+
+        new PrometheusExporter(registry, file, Logger.getLogger(PrometheusExporterTest.class.getName())).export();
+
+        assertEquals(PrometheusExporter.format(registry), Files.readString(file, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(folder.resolve("playerwelcomer.prom.tmp")));
+    }
+}
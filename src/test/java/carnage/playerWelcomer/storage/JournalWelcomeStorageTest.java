@@ -0,0 +1,216 @@
+package carnage.playerWelcomer.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reopens the journal after each scenario to check what a restart would load.
+ */
+class JournalWelcomeStorageTest {
+    private static final Logger LOGGER = Logger.getLogger(JournalWelcomeStorageTest.class.getName());
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 32;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private JournalWelcomeStorage storage;
+
+    @BeforeEach
+    void open() throws StorageException {
+        file = directory.resolve("welcomed.journal");
+        storage = openStorage();
+    }
+
+    @AfterEach
+    void close() {
+        storage.close(5_000L);
+    }
+
+    private JournalWelcomeStorage openStorage() throws StorageException {
+        JournalWelcomeStorage opened = new JournalWelcomeStorage(file, LOGGER, 64);
+        opened.open();
+        return opened;
+    }
+
+    private void reopen() throws StorageException {
+        storage.close(5_000L);
+        storage = openStorage();
+    }
+
+    @Test
+    void welcomesSurviveAReopen() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        storage.saveWelcomes(List.of(new WelcomeRecord(first, 1_000L, 1L))).get();
+        storage.saveWelcomes(List.of(new WelcomeRecord(second, 2_000L, 2L))).get();
+
+        reopen();
+
+        assertTrue(storage.loadWelcomedPlayers().contains(first));
+        assertEquals(2L, storage.loadUniqueJoinCount());
+        assertTrue(storage.isWelcomed(second));
+        assertFalse(storage.isWelcomed(UUID.randomUUID()));
+    }
+
+    @Test
+    void duplicatesAreCompactedOnReopen() throws Exception {
+        UUID player = UUID.randomUUID();
+        storage.saveWelcomes(List.of(new WelcomeRecord(player, 1_000L, 1L))).get();
+        storage.saveWelcomes(List.of(
+                new WelcomeRecord(player, 2_000L, 1L),
+                new WelcomeRecord(UUID.randomUUID(), 2_000L, 2L)
+        )).get();
+
+        reopen();
+
+        assertEquals(2L, storage.loadUniqueJoinCount());
+        assertEquals(2, storage.loadWelcomedPlayers().size());
+
+        // Compaction is stable: a second reopen finds the same state
+        reopen();
+        assertEquals(2L, storage.loadUniqueJoinCount());
+    }
+
+    @Test
+    void corruptRecordAndEverythingAfterItAreDiscarded() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        storage.saveWelcomes(List.of(
+                new WelcomeRecord(first, 1_000L, 1L),
+                new WelcomeRecord(second, 1_000L, 2L),
+                new WelcomeRecord(third, 1_000L, 3L)
+        )).get();
+        storage.close(5_000L);
+
+        // Flip one bit of the second record's timestamp, as a torn page write would leave it
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long offset = HEADER_SIZE + RECORD_SIZE + 16;
+            ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+            channel.read(value, offset);
+            value.flip();
+            long welcomedAt = value.getLong();
+            value.clear();
+            value.putLong(welcomedAt ^ 1L).flip();
+            channel.write(value, offset);
+        }
+
+        storage = openStorage();
+
+        assertTrue(storage.loadWelcomedPlayers().contains(first));
+        assertEquals(1L, storage.loadUniqueJoinCount());
+        assertFalse(storage.isWelcomed(second));
+        assertFalse(storage.isWelcomed(third));
+
+        // New welcomes overwrite the discarded tail
+        storage.saveWelcomes(List.of(new WelcomeRecord(second, 2_000L, 2L))).get();
+        reopen();
+        assertEquals(2L, storage.loadUniqueJoinCount());
+        assertTrue(storage.isWelcomed(second));
+        assertFalse(storage.isWelcomed(third));
+    }
+
+    @Test
+    void zeroedTailIsNotCountedAsRecords() throws Exception {
+        storage.saveWelcomes(List.of(new WelcomeRecord(UUID.randomUUID(), 1_000L, 1L))).get();
+        storage.close(5_000L);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(RECORD_SIZE * 4 + 7), channel.size());
+        }
+
+        storage = openStorage();
+        assertEquals(1L, storage.loadUniqueJoinCount());
+    }
+
+    @Test
+    void resetSurvivesAReopen() throws Exception {
+        UUID before = UUID.randomUUID();
+        UUID after = UUID.randomUUID();
+        storage.saveWelcomes(List.of(
+                new WelcomeRecord(before, 1_000L, 1L),
+                new WelcomeRecord(UUID.randomUUID(), 1_000L, 2L)
+        )).get();
+
+        storage.reset().get();
+        reopen();
+        assertEquals(0L, storage.loadUniqueJoinCount());
+        assertEquals(0, storage.loadWelcomedPlayers().size());
+
+        storage.saveWelcomes(List.of(new WelcomeRecord(after, 2_000L, 1L))).get();
+        reopen();
+        assertEquals(1L, storage.loadUniqueJoinCount());
+        assertTrue(storage.isWelcomed(after));
+        assertFalse(storage.isWelcomed(before));
+    }
+
+    @Test
+    void versionOneJournalIsUpgraded() throws Exception {
+        storage.close(5_000L);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // Version 1: 16-byte header, then unchecksummed (msb, lsb, welcomed_at) records
+        ByteBuffer legacy = ByteBuffer.allocate(16 + 24 * 4);
+        legacy.putLong(0x50574A524E4C0001L).putInt(24).putInt(0);
+        for (UUID id : List.of(first, second, first)) {
+            legacy.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).putLong(1_000L);
+        }
+        legacy.putLong(0L).putLong(0L).putLong(0L); // Unused space after the last append
+        legacy.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(legacy);
+        }
+
+        storage = openStorage();
+        assertEquals(2L, storage.loadUniqueJoinCount());
+        assertTrue(storage.loadWelcomedPlayers().contains(second));
+
+        UUID third = UUID.randomUUID();
+        storage.saveWelcomes(List.of(new WelcomeRecord(third, 2_000L, 3L))).get();
+        reopen();
+        assertEquals(3L, storage.loadUniqueJoinCount());
+        assertTrue(storage.isWelcomed(first));
+        assertTrue(storage.isWelcomed(third));
+        assertEquals(0x50574A524E4C0002L, readMagic());
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws IOException {
+        storage.close(5_000L);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap("not a journal at all".getBytes()));
+        }
+
+        storage = new JournalWelcomeStorage(file, LOGGER, 64);
+        assertThrows(StorageException.class, storage::open);
+    }
+
+    private long readMagic() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Long.BYTES);
+            channel.read(magic, 0L);
+            return magic.flip().getLong();
+        }
+    }
+}
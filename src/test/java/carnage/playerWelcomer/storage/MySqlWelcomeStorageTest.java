@@ -0,0 +1,114 @@
+package carnage.playerWelcomer.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the MySQL backend against an embedded H2 database in MySQL compatibility mode.
+ */
+class MySqlWelcomeStorageTest {
+    private static final String URL_PREFIX = "jdbc:h2:mem:";
+    private static final String URL_OPTIONS = ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE";
+    private static final Logger LOGGER = Logger.getLogger(MySqlWelcomeStorageTest.class.getName());
+
+    private String url;
+    private MySqlWelcomeStorage storage;
+
+    @BeforeEach
+    void open() throws StorageException {
+        url = URL_PREFIX + UUID.randomUUID() + URL_OPTIONS;
+        storage = openStorage();
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        storage.close(5_000L);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+    }
+
+    private MySqlWelcomeStorage openStorage() throws StorageException {
+        MySqlWelcomeStorage opened = new MySqlWelcomeStorage(url, "sa", "", "pw_", LOGGER, 2, 64);
+        opened.open();
+        return opened;
+    }
+
+    @Test
+    void savedWelcomesAreFoundAndLoaded() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        long stored = storage.saveWelcomes(List.of(
+                new WelcomeRecord(first, 1_000L, 1L),
+                new WelcomeRecord(second, 2_000L, 2L)
+        )).get();
+
+        assertEquals(2L, stored);
+        assertTrue(storage.isWelcomed(first));
+        assertTrue(storage.isWelcomed(second));
+        assertFalse(storage.isWelcomed(UUID.randomUUID()));
+        assertEquals(2, storage.loadWelcomedPlayers().size());
+        assertEquals(2L, storage.loadUniqueJoinCount());
+    }
+
+    @Test
+    void duplicatesDoNotAdvanceTheJoinCount() throws Exception {
+        UUID player = UUID.randomUUID();
+        storage.saveWelcomes(List.of(new WelcomeRecord(player, 1_000L, 1L))).get();
+
+        long stored = storage.saveWelcomes(List.of(
+                new WelcomeRecord(player, 3_000L, 2L),
+                new WelcomeRecord(UUID.randomUUID(), 3_000L, 3L)
+        )).get();
+
+        assertEquals(2L, stored);
+        assertEquals(2, storage.loadWelcomedPlayers().size());
+    }
+
+    @Test
+    void joinCountCheckpointAddsToOtherServers() throws Exception {
+        MySqlWelcomeStorage otherServer = openStorage();
+        try {
+            otherServer.saveWelcomes(List.of(
+                    new WelcomeRecord(UUID.randomUUID(), 1_000L, 1L),
+                    new WelcomeRecord(UUID.randomUUID(), 1_000L, 2L)
+            )).get();
+
+            // Our local count is behind; the stored count is incremented, not overwritten
+            long stored = storage.saveWelcomes(List.of(new WelcomeRecord(UUID.randomUUID(), 2_000L, 1L))).get();
+
+            assertEquals(3L, stored);
+            assertEquals(3L, otherServer.loadUniqueJoinCount());
+        } finally {
+            otherServer.close(5_000L);
+        }
+    }
+
+    @Test
+    void resetDeletesWelcomesAndJoinCount() throws Exception {
+        UUID player = UUID.randomUUID();
+        storage.saveWelcomes(List.of(new WelcomeRecord(player, 1_000L, 1L))).get();
+
+        storage.reset().get();
+
+        assertFalse(storage.isWelcomed(player));
+        assertEquals(0, storage.loadWelcomedPlayers().size());
+        assertEquals(0L, storage.loadUniqueJoinCount());
+        assertEquals(1L, storage.saveWelcomes(List.of(new WelcomeRecord(player, 2_000L, 1L))).get());
+    }
+}
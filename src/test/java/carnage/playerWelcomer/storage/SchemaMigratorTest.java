@@ -0,0 +1,156 @@
+package carnage.playerWelcomer.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrates SQLite databases in the schema written by releases before the migrator existed.
+ */
+class SchemaMigratorTest {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigratorTest.class.getName());
+    private static final int LEGACY_ROWS = 25_003; // More than two migration chunks
+
+    @TempDir
+    Path directory;
+
+    private Connection connection;
+
+    @BeforeEach
+    void open() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("playerdata.db"));
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Creates the unversioned schema and fills it with welcomed players.
+     * @return the UUIDs stored
+     */
+    private List<UUID> createLegacyDatabase() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE welcomed_players (uuid TEXT PRIMARY KEY, welcomed_at INTEGER NOT NULL)");
+            stmt.execute("CREATE TABLE metadata (key TEXT PRIMARY KEY, value TEXT NOT NULL)");
+            stmt.execute("INSERT INTO metadata (key, value) VALUES ('unique_join_count', '" + LEGACY_ROWS + "')");
+        }
+
+        List<UUID> players = new ArrayList<>(LEGACY_ROWS);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO welcomed_players (uuid, welcomed_at) VALUES (?, ?)"
+        )) {
+            for (int i = 0; i < LEGACY_ROWS; i++) {
+                UUID player = UUID.randomUUID();
+                players.add(player);
+                insert.setString(1, player.toString());
+                insert.setLong(2, 1_000L + i);
+                insert.addBatch();
+            }
+            insert.setString(1, "not-a-uuid");
+            insert.setLong(2, 1_000L);
+            insert.addBatch();
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return players;
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+
+    @Test
+    void legacyDatabaseIsMigratedToBinaryKeys() throws SQLException {
+        List<UUID> players = createLegacyDatabase();
+
+        new SchemaMigrator(LOGGER).migrate(connection);
+
+        assertEquals(SchemaMigrator.CURRENT_VERSION, queryLong("PRAGMA user_version"));
+        assertEquals(LEGACY_ROWS, queryLong("SELECT COUNT(*) FROM welcomed_players"));
+        assertEquals(0L, queryLong("SELECT COUNT(*) FROM welcomed_players WHERE typeof(uuid) <> 'blob'"));
+        assertEquals(0L, queryLong("SELECT COUNT(*) FROM sqlite_master WHERE name = 'welcomed_players_v2'"));
+        assertTrue(queryString("SELECT sql FROM sqlite_master WHERE name = 'welcomed_players'").contains("WITHOUT ROWID"));
+
+        assertEquals("integer", queryString("SELECT typeof(value) FROM metadata WHERE key = 'unique_join_count'"));
+        assertEquals(LEGACY_ROWS, queryLong("SELECT value FROM metadata WHERE key = 'unique_join_count'"));
+
+        // Spot-check rows from every chunk
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT welcomed_at FROM welcomed_players WHERE uuid = ?"
+        )) {
+            for (int i = 0; i < LEGACY_ROWS; i += 4_999) {
+                select.setBytes(1, UuidCodec.toBytes(players.get(i)));
+                try (ResultSet rs = select.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(1_000L + i, rs.getLong(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void secondMigrationIsANoOp() throws SQLException {
+        createLegacyDatabase();
+        new SchemaMigrator(LOGGER).migrate(connection);
+        String schema = queryString("SELECT group_concat(sql, ';') FROM sqlite_master");
+        long changes = queryLong("SELECT total_changes()");
+
+        new SchemaMigrator(LOGGER).migrate(connection);
+
+        assertEquals(changes, queryLong("SELECT total_changes()"));
+        assertEquals(schema, queryString("SELECT group_concat(sql, ';') FROM sqlite_master"));
+        assertEquals(SchemaMigrator.CURRENT_VERSION, queryLong("PRAGMA user_version"));
+        assertEquals(LEGACY_ROWS, queryLong("SELECT COUNT(*) FROM welcomed_players"));
+    }
+
+    @Test
+    void emptyDatabaseGetsTheCurrentSchema() throws SQLException {
+        new SchemaMigrator(LOGGER).migrate(connection);
+
+        assertEquals(SchemaMigrator.CURRENT_VERSION, queryLong("PRAGMA user_version"));
+        assertEquals(0L, queryLong("SELECT COUNT(*) FROM welcomed_players"));
+        assertEquals(0L, queryLong("SELECT value FROM metadata WHERE key = 'unique_join_count'"));
+    }
+
+    @Test
+    void newerSchemaIsRejected() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA user_version = " + (SchemaMigrator.CURRENT_VERSION + 1));
+        }
+
+        assertThrows(SQLException.class, () -> new SchemaMigrator(LOGGER).migrate(connection));
+    }
+}
@@ -0,0 +1,226 @@
+package carnage.playerWelcomer.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the flush chain with writers whose futures the test completes or fails.
+ */
+class WriteBehindQueueTest {
+    private static final Logger LOGGER = Logger.getLogger(WriteBehindQueueTest.class.getName());
+
+    @Test
+    void flushWritesEverythingBufferedInOneBatch() throws Exception {
+        List<List<String>> written = new CopyOnWriteArrayList<>();
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(batch -> {
+            written.add(batch);
+            return CompletableFuture.completedFuture(null);
+        }, 100, LOGGER);
+        queue.add("a", "a");
+        queue.add("b", "b");
+        assertTrue(queue.contains("a"));
+
+        queue.flushNow().get();
+
+        assertEquals(1, written.size());
+        assertEquals(2, written.get(0).size());
+        assertFalse(queue.contains("a"));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void drainStoresEverythingAndClosesTheQueue() {
+        List<List<String>> written = new CopyOnWriteArrayList<>();
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(batch -> {
+            written.add(batch);
+            return CompletableFuture.completedFuture(null);
+        }, 100, LOGGER);
+        queue.add("a", "a");
+        queue.add("b", "b");
+
+        assertEquals(0, queue.drain(1_000L));
+
+        assertEquals(1, written.size());
+        assertEquals(2, written.get(0).size());
+        assertTrue(queue.isClosed());
+        assertFalse(queue.add("c", "c"));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void drainGivesUpAtTheDeadline() {
+        // The batch never completes, as with a hung database
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(
+                batch -> new CompletableFuture<>(), 100, LOGGER
+        );
+        queue.add("a", "a");
+        queue.add("b", "b");
+
+        long start = System.nanoTime();
+        int unsaved = queue.drain(200L);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertEquals(2, unsaved);
+        assertTrue(elapsedMs >= 150L, "returned early after " + elapsedMs + " ms");
+        assertTrue(elapsedMs < 2_000L, "overran the deadline by " + elapsedMs + " ms");
+    }
+
+    @Test
+    void drainWithZeroTimeoutDoesNotWait() {
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(
+                batch -> new CompletableFuture<>(), 100, LOGGER
+        );
+        queue.add("a", "a");
+
+        assertEquals(1, queue.drain(0L));
+        assertTrue(queue.isClosed());
+    }
+
+    @Test
+    void failedBatchIsRetriedByTheNextFlush() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(batch -> attempts.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new IllegalStateException("database locked"))
+                : CompletableFuture.completedFuture(null), 100, LOGGER);
+        queue.add("a", "a");
+
+        queue.flushNow().get();
+        assertTrue(queue.contains("a"));
+
+        queue.flushNow().get();
+        assertFalse(queue.contains("a"));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void drainRetriesFailedBatchesWithinTheDeadline() {
+        AtomicInteger attempts = new AtomicInteger();
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(batch -> attempts.incrementAndGet() <= 2
+                ? CompletableFuture.failedFuture(new IllegalStateException("database locked"))
+                : CompletableFuture.completedFuture(null), 100, LOGGER);
+        queue.add("a", "a");
+
+        assertEquals(0, queue.drain(5_000L));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void recordReplacedDuringAFlushIsWrittenAgain() throws Exception {
+        List<List<String>> written = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> firstWrite = new CompletableFuture<>();
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(batch -> {
+            written.add(batch);
+            return written.size() == 1 ? firstWrite : CompletableFuture.completedFuture(null);
+        }, 100, LOGGER);
+        queue.add("a", "old");
+        CompletableFuture<Void> flush = queue.flushNow();
+
+        queue.add("a", "new");
+        firstWrite.complete(null);
+        flush.get();
+
+        // Only the stored value is removed from the buffer
+        assertTrue(queue.contains("a"));
+        queue.flushNow().get();
+        assertEquals(List.of("new"), written.get(1));
+    }
+
+    @Test
+    void resetRunsAfterTheFlushInFlightAndDiscardsOlderRecords() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> inFlight = new CompletableFuture<>();
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(batch -> {
+            events.add("write " + batch);
+            return events.size() == 1 ? inFlight : CompletableFuture.completedFuture(null);
+        }, 100, LOGGER);
+
+        queue.add("a", "a");
+        queue.flushNow();
+        queue.add("b", "b");
+
+        CompletableFuture<Void> reset = queue.clearAndRun(() -> {
+            events.add("reset");
+            return CompletableFuture.completedFuture(null);
+        });
+        assertFalse(reset.isDone());
+        assertEquals(List.of("write [a]"), events);
+
+        inFlight.complete(null);
+        reset.get();
+
+        // "b" was buffered before the reset, so it is wiped with everything else
+        assertEquals(List.of("write [a]", "reset"), events);
+        assertEquals(0, queue.size());
+
+        queue.add("c", "c");
+        queue.flushNow().get();
+        assertEquals(List.of("write [a]", "reset", "write [c]"), events);
+    }
+
+    @Test
+    void failedResetDoesNotBreakTheChain() throws Exception {
+        List<List<String>> written = new CopyOnWriteArrayList<>();
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(batch -> {
+            written.add(batch);
+            return CompletableFuture.completedFuture(null);
+        }, 100, LOGGER);
+
+        CompletableFuture<Void> reset = queue.clearAndRun(
+                () -> CompletableFuture.failedFuture(new IllegalStateException("disk full"))
+        );
+        assertTrue(reset.isCompletedExceptionally());
+
+        queue.add("a", "a");
+        queue.flushNow().get();
+        assertEquals(List.of(List.of("a")), written);
+    }
+
+    @Test
+    void clearWaitsForActionsHoldingTheAddLock() throws Exception {
+        WriteBehindQueue<String, String> queue = new WriteBehindQueue<>(
+                batch -> CompletableFuture.completedFuture(null), 100, LOGGER
+        );
+        List<String> events = new CopyOnWriteArrayList<>();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread claim = new Thread(() -> queue.runWithAddLock(() -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add("claim");
+            return queue.add("a", "a");
+        }));
+        claim.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // Clearing blocks on the lock, so start the reset from another thread
+        CompletableFuture<Void> reset = CompletableFuture.supplyAsync(() -> queue.clearAndRun(() -> {
+            events.add("reset");
+            return CompletableFuture.<Void>completedFuture(null);
+        })).thenCompose(action -> action);
+        Thread.sleep(100L);
+        assertFalse(reset.isDone());
+
+        release.countDown();
+        reset.get(5, TimeUnit.SECONDS);
+        claim.join();
+
+        // The record added under the lock was buffered before the reset, so it was wiped too
+        assertEquals(List.of("claim", "reset"), events);
+        assertEquals(0, queue.size());
+    }
+}
@@ -0,0 +1,125 @@
+package carnage.playerWelcomer.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that rendering shows the same styled text as replacing the placeholders and then
+ * running the legacy deserializer, for the default broadcast messages (with color codes
+ * translated) and for placeholders in awkward positions.
+ */
+class ComponentTemplateTest {
+    private static final String[] FIRST_JOIN = {"%player_name%", "%unique_join_count%"};
+    private static final String[] WELCOME = {"%target_name%", "%player_name%"};
+    private static final String[] STORM = {"%players%", "%count%"};
+
+    private record Run(String text, Style style) {
+    }
+
+    /**
+     * Turns {@code &} color codes into section-sign codes, as color translation leaves them.
+     */
+    private static String section(String message) {
+        return message.replace('&', '\u00A7');
+    }
+
+    /**
+     * Flattens a component into runs of text with their effective style, joining neighbours
+     * of equal style, so trees that nest differently but look the same compare equal.
+     */
+    private static List<Run> runs(Component component) {
+        List<Run> runs = new ArrayList<>();
+        collect(component, Style.empty(), runs);
+        return runs;
+    }
+
+    private static void collect(Component component, Style inherited, List<Run> runs) {
+        Style style = component.style().merge(inherited, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+        if (component instanceof TextComponent text && !text.content().isEmpty()) {
+            int last = runs.size() - 1;
+            if (last >= 0 && runs.get(last).style().equals(style)) {
+                runs.set(last, new Run(runs.get(last).text() + text.content(), style));
+            } else {
+                runs.add(new Run(text.content(), style));
+            }
+        }
+
+        for (Component child : component.children()) {
+            collect(child, style, runs);
+        }
+    }
+
+    private static void assertRendersLikeDeserialize(String legacy, String[] placeholders, String... values) {
+        String replaced = legacy;
+        for (int i = 0; i < placeholders.length; i++) {
+            replaced = replaced.replace(placeholders[i], values[i]);
+        }
+        Component expected = LegacyComponentSerializer.legacySection().deserialize(replaced);
+        Component rendered = ComponentTemplate.compile(legacy, placeholders).render(values);
+
+        assertEquals(runs(expected), runs(rendered));
+    }
+
+    @Test
+    void defaultFirstJoinLinesRenderLikeDeserialize() {
+        assertRendersLikeDeserialize(section("&x&8&0&8&0&8&0&m===================="), FIRST_JOIN, "Steve", "42");
+        assertRendersLikeDeserialize("", FIRST_JOIN, "Steve", "42");
+        assertRendersLikeDeserialize(
+                section("&x&0&0&f&f&0&0&lWelcome &x&f&f&f&f&0&0%player_name% &x&8&0&8&0&8&0to the server! "
+                        + "&x&8&0&8&0&8&0[&f#%unique_join_count%&x&8&0&8&0&8&0]"),
+                FIRST_JOIN, "Steve", "42"
+        );
+    }
+
+    @Test
+    void defaultWelcomeAndStormMessagesRenderLikeDeserialize() {
+        assertRendersLikeDeserialize(
+                section("&x&0&0&f&f&0&0Welcome to the server, &x&f&f&f&f&0&0%target_name%&x&0&0&f&f&0&0! "
+                        + "Welcomed by &x&f&f&f&f&0&0%player_name%"),
+                WELCOME, "Newbie", "Steve"
+        );
+        assertRendersLikeDeserialize(
+                section("&x&0&0&f&f&0&0&lWelcome &x&f&f&f&f&0&0%players% &x&8&0&8&0&8&0to the server!"),
+                STORM, "Steve, Alex and 3 others", "5"
+        );
+    }
+
+    @Test
+    void adjacentAndRepeatedPlaceholders() {
+        assertRendersLikeDeserialize(section("&a%player_name%%unique_join_count%"), FIRST_JOIN, "Steve", "7");
+        assertRendersLikeDeserialize(section("&a%player_name% &b%player_name%&l%player_name%"), FIRST_JOIN, "Alex", "8");
+    }
+
+    @Test
+    void placeholderSplitByAColorCodeStaysLiteral() {
+        assertRendersLikeDeserialize(section("&aHi %player&b_name%!"), FIRST_JOIN, "Steve", "1");
+        assertRendersLikeDeserialize(section("%player_name&r%"), FIRST_JOIN, "Steve", "1");
+    }
+
+    @Test
+    void unknownTokensAndStrayPercentSignsStayLiteral() {
+        assertRendersLikeDeserialize(section("&e%unknown% %player_name% 100%"), FIRST_JOIN, "Steve", "1");
+        assertRendersLikeDeserialize(section("&e%%player_name%%"), FIRST_JOIN, "Steve", "1");
+    }
+
+    @Test
+    void placeholderTakesTheDecorationsInEffect() {
+        assertRendersLikeDeserialize(section("&c&l&o%player_name%&r plain"), FIRST_JOIN, "Steve", "1");
+    }
+
+    @Test
+    void messageWithoutPlaceholdersRendersTheCachedComponent() {
+        ComponentTemplate template = ComponentTemplate.compile(section("&aNo placeholders here"), FIRST_JOIN);
+
+        assertSame(template.render("Steve", "1"), template.render("Alex", "2"));
+    }
+}
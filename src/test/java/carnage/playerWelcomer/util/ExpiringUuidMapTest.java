@@ -0,0 +1,169 @@
+package carnage.playerWelcomer.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers expiry through the timing wheel, including keys rewritten before their first deadline.
+ */
+class ExpiringUuidMapTest {
+    private static final long TTL_MS = 1_000L;
+    private static final long TICK_MS = 100L;
+
+    private ExpiringUuidMap map;
+    private long now;
+
+    @BeforeEach
+    void create() {
+        map = new ExpiringUuidMap(TTL_MS, TICK_MS);
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void entriesExpireOnceTheirDeadlinePassed() {
+        UUID player = UUID.randomUUID();
+        map.put(player, now);
+
+        assertEquals(0, map.expire(now + TTL_MS - TICK_MS));
+        assertEquals(now, map.get(player));
+
+        assertEquals(1, map.expire(now + TTL_MS + TICK_MS));
+        assertEquals(ExpiringUuidMap.ABSENT, map.get(player));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void rewrittenKeyIgnoresItsStaleDeadline() {
+        UUID player = UUID.randomUUID();
+        map.put(player, now);
+        map.put(player, now + 500L);
+
+        // The first deadline comes due, but no longer matches the stored value
+        assertEquals(0, map.expire(now + TTL_MS + TICK_MS));
+        assertEquals(now + 500L, map.get(player));
+
+        assertEquals(1, map.expire(now + 500L + TTL_MS + TICK_MS));
+        assertEquals(ExpiringUuidMap.ABSENT, map.get(player));
+    }
+
+    @Test
+    void setTtlReschedulesExistingEntries() {
+        UUID player = UUID.randomUUID();
+        map.put(player, now);
+
+        map.setTtl(5_000L);
+        assertEquals(0, map.expire(now + 2_000L));
+        assertEquals(now, map.get(player));
+        assertFalse(map.putIfExpired(player, now + 2_000L));
+
+        map.setTtl(3_000L);
+        assertEquals(1, map.expire(now + 3_000L + TICK_MS));
+        assertEquals(ExpiringUuidMap.ABSENT, map.get(player));
+    }
+
+    @Test
+    void setTtlDropsDeadlinesOfRewrittenKeys() {
+        UUID player = UUID.randomUUID();
+        map.put(player, now);
+        map.put(player, now + 100L);
+        map.put(player, now + 200L);
+
+        map.setTtl(2_000L);
+
+        // Only the latest value is scheduled again; it is removed exactly once
+        assertEquals(0, map.expire(now + 2_000L));
+        assertEquals(1, map.expire(now + 2_200L + TICK_MS));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void putIfExpiredTreatsDueEntriesAsAbsent() {
+        UUID player = UUID.randomUUID();
+        assertTrue(map.putIfExpired(player, now));
+
+        assertFalse(map.putIfExpired(player, now + TTL_MS - 1));
+        assertEquals(now, map.get(player));
+
+        // Past its deadline but not expired yet
+        assertTrue(map.putIfExpired(player, now + TTL_MS));
+        assertEquals(now + TTL_MS, map.get(player));
+
+        // The replaced value's deadline must not remove the new one
+        assertEquals(0, map.expire(now + TTL_MS + TICK_MS));
+        assertEquals(now + TTL_MS, map.get(player));
+    }
+
+    @Test
+    void expireOnAnEmptyMapRemovesNothing() {
+        assertEquals(0, map.expire(now));
+        assertEquals(0, map.expire(now + 60_000L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void expireKeepsFarFutureEntries() {
+        ExpiringUuidMap longLived = new ExpiringUuidMap(365L * 24 * 60 * 60 * 1000, 1_000L);
+        UUID player = UUID.randomUUID();
+        longLived.put(player, now);
+
+        assertEquals(0, longLived.expire(now + 60L * 60 * 1000));
+        assertEquals(now, longLived.get(player));
+        assertEquals(1, longLived.size());
+    }
+
+    @Test
+    void expiringSomeEntriesKeepsTheOthersReachable() {
+        List<UUID> early = new ArrayList<>();
+        List<UUID> late = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            map.put(first, now);
+            map.put(second, now + 5_000L);
+            early.add(first);
+            late.add(second);
+        }
+
+        assertEquals(early.size(), map.expire(now + TTL_MS + TICK_MS));
+        for (UUID id : early) {
+            assertEquals(ExpiringUuidMap.ABSENT, map.get(id));
+        }
+        for (UUID id : late) {
+            assertEquals(now + 5_000L, map.get(id));
+        }
+    }
+
+    @Test
+    void nilUuidIsStoredAndExpired() {
+        UUID nil = new UUID(0L, 0L);
+        assertEquals(ExpiringUuidMap.ABSENT, map.get(nil));
+
+        map.put(nil, now);
+        assertEquals(now, map.get(nil));
+        assertEquals(1, map.size());
+
+        assertEquals(1, map.expire(now + TTL_MS + TICK_MS));
+        assertEquals(ExpiringUuidMap.ABSENT, map.get(nil));
+    }
+
+    @Test
+    void snapshotRestoresOnlyLiveEntries() {
+        UUID stale = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        map.put(stale, now - TTL_MS);
+        map.put(live, now);
+
+        ExpiringUuidMap restored = new ExpiringUuidMap(TTL_MS, TICK_MS);
+        assertEquals(1, restored.putAll(map.toArray(), now));
+        assertEquals(ExpiringUuidMap.ABSENT, restored.get(stale));
+        assertEquals(now, restored.get(live));
+    }
+}
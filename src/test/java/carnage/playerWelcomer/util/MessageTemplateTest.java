@@ -0,0 +1,82 @@
+package carnage.playerWelcomer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that rendering matches the chained {@link String#replace} it replaced, for the
+ * default messages (with color codes translated) and for placeholders in awkward positions.
+ */
+class MessageTemplateTest {
+    private static final String[] REWARD = {"%reward_amount%", "%reward_display%"};
+    private static final String[] SECONDS = {"%seconds%"};
+    private static final String[] COUNT = {"%count%"};
+    private static final String[] PLAYER = {"%player_name%", "%unique_join_count%"};
+
+    /**
+     * Turns {@code &} color codes into section-sign codes, as color translation leaves them.
+     */
+    private static String section(String message) {
+        return message.replace('&', '\u00A7');
+    }
+
+    private static void assertRendersLikeReplace(String message, String[] placeholders, String... values) {
+        String expected = message;
+        for (int i = 0; i < placeholders.length; i++) {
+            expected = expected.replace(placeholders[i], values[i]);
+        }
+        assertEquals(expected, MessageTemplate.compile(message, placeholders).render(values));
+    }
+
+    @Test
+    void defaultMessagesRenderLikeReplace() {
+        assertRendersLikeReplace(
+                section("&x&0&0&f&f&0&0You welcomed a new player and received &x&a&d&d&8&e&6%reward_amount% %reward_display%!"),
+                REWARD, "100", "Coins"
+        );
+        assertRendersLikeReplace(
+                section("&x&f&f&0&0&0&0Please wait %seconds% seconds before using this command again!"),
+                SECONDS, "42"
+        );
+        assertRendersLikeReplace(" and %count% others", COUNT, "17");
+    }
+
+    @Test
+    void adjacentAndRepeatedPlaceholders() {
+        assertRendersLikeReplace("%player_name%%unique_join_count%", PLAYER, "Steve", "7");
+        assertRendersLikeReplace("%player_name%, %player_name% and %player_name%", PLAYER, "Alex", "8");
+        assertRendersLikeReplace("%unique_join_count%: %player_name%", PLAYER, "Steve", "9");
+    }
+
+    @Test
+    void placeholderSplitByAColorCodeStaysLiteral() {
+        assertRendersLikeReplace(section("Hi %player&a_name%!"), PLAYER, "Steve", "1");
+        assertRendersLikeReplace(section("&a%player_name&b%"), PLAYER, "Steve", "1");
+    }
+
+    @Test
+    void unknownTokensAndStrayPercentSignsStayLiteral() {
+        assertRendersLikeReplace("%unknown% %player_name%", PLAYER, "Steve", "1");
+        assertRendersLikeReplace("100% of %%player_name% %", PLAYER, "Steve", "1");
+        assertRendersLikeReplace("%", PLAYER, "Steve", "1");
+        assertRendersLikeReplace("%player_name", PLAYER, "Steve", "1");
+    }
+
+    @Test
+    void placeholderAtEitherEndOrAlone() {
+        assertRendersLikeReplace("%seconds%", SECONDS, "3");
+        assertRendersLikeReplace("%seconds%s left", SECONDS, "3");
+        assertRendersLikeReplace("Wait %seconds%", SECONDS, "3");
+        assertRendersLikeReplace("", SECONDS, "3");
+    }
+
+    @Test
+    void messageWithoutPlaceholdersRendersItself() {
+        String message = section("&aNo placeholders here");
+        MessageTemplate template = MessageTemplate.compile(message, PLAYER);
+
+        assertSame(message, template.render("Steve", "1"));
+    }
+}
@@ -0,0 +1,130 @@
+package carnage.playerWelcomer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the token buckets with a manual clock.
+ */
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000L);
+    private final UUID player = UUID.randomUUID();
+
+    private RateLimiter limiter(int maxRequests, long windowMs) {
+        return new RateLimiter(maxRequests, windowMs, clock::get);
+    }
+
+    /**
+     * Takes tokens until the bucket is empty.
+     * @return number of tokens taken
+     */
+    private static int drain(RateLimiter limiter, UUID id) {
+        int taken = 0;
+        while (limiter.tryAcquire(id)) {
+            taken++;
+        }
+        return taken;
+    }
+
+    @Test
+    void fullBucketAllowsABurstOfMaxRequests() {
+        RateLimiter limiter = limiter(3, 1_000L);
+
+        assertEquals(3, drain(limiter, player));
+        assertFalse(limiter.tryAcquire(player));
+
+        // Other players have buckets of their own
+        assertTrue(limiter.tryAcquire(UUID.randomUUID()));
+    }
+
+    @Test
+    void tokensRefillEvenlyOverTheWindow() {
+        RateLimiter limiter = limiter(4, 1_000L);
+        drain(limiter, player);
+
+        // One token every 250 ms
+        clock.addAndGet(249L);
+        assertFalse(limiter.tryAcquire(player));
+        clock.addAndGet(1L);
+        assertTrue(limiter.tryAcquire(player));
+        assertFalse(limiter.tryAcquire(player));
+
+        clock.addAndGet(500L);
+        assertEquals(2, drain(limiter, player));
+    }
+
+    @Test
+    void idleBucketRefillsNoFurtherThanFull() {
+        RateLimiter limiter = limiter(2, 1_000L);
+        limiter.tryAcquire(player);
+
+        clock.addAndGet(60_000L);
+        assertEquals(2, drain(limiter, player));
+    }
+
+    @Test
+    void maxCapacityFitsTheTokenBits() {
+        RateLimiter limiter = limiter(RateLimiter.MAX_CAPACITY, 1_000L);
+        assertEquals(RateLimiter.MAX_CAPACITY, drain(limiter, player));
+
+        // A long idle period clamps at capacity instead of overflowing into the time bits
+        clock.addAndGet(1_000_000L);
+        assertEquals(RateLimiter.MAX_CAPACITY, drain(limiter, player));
+
+        clock.addAndGet(500L);
+        assertEquals(RateLimiter.MAX_CAPACITY / 2, drain(limiter, player));
+    }
+
+    @Test
+    void invalidLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(0, 1_000L));
+        assertThrows(IllegalArgumentException.class, () -> limiter(RateLimiter.MAX_CAPACITY + 1, 1_000L));
+        assertThrows(IllegalArgumentException.class, () -> limiter(1, 0L));
+    }
+
+    @Test
+    void refillIsUnaffectedByTheClockWrappingAround() {
+        clock.set((1L << 42) - 100L);
+        RateLimiter limiter = limiter(2, 1_000L);
+        drain(limiter, player);
+
+        // 200 ms later the packed time has wrapped to 100; that is 0.4 tokens, not a full bucket
+        clock.addAndGet(200L);
+        assertFalse(limiter.tryAcquire(player));
+
+        clock.addAndGet(400L);
+        assertTrue(limiter.tryAcquire(player));
+        assertFalse(limiter.tryAcquire(player));
+
+        clock.addAndGet(1_000L);
+        assertEquals(2, drain(limiter, player));
+    }
+
+    @Test
+    void evictIdleDropsOnlyBucketsThatAreFullAgain() {
+        RateLimiter limiter = limiter(2, 1_000L);
+        UUID busy = UUID.randomUUID();
+        limiter.tryAcquire(player);
+        drain(limiter, busy);
+        assertEquals(2, limiter.size());
+
+        // Half a window refills one token: enough for player, not for busy
+        clock.addAndGet(500L);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+
+        clock.addAndGet(500L);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(0, limiter.size());
+
+        // An evicted player starts over with a full bucket
+        assertEquals(2, drain(limiter, busy));
+    }
+}
@@ -0,0 +1,87 @@
+package carnage.playerWelcomer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that entries fire on their deadline tick no matter which level they were placed on.
+ */
+class TimingWheelTest {
+    private static final long SPAN_TICKS = 1L << 24;
+
+    @Test
+    void entriesFireOnTheirDeadlineTickAcrossLevelBoundaries() {
+        long[] offsets = {1L, 63L, 64L, 65L, 4_095L, 4_096L, 4_097L, 262_143L, 262_144L, 262_145L};
+
+        // Starting just before a wrap makes entries cascade while lower levels roll over
+        for (long start : new long[]{0L, 60L, 4_090L, 262_100L}) {
+            TimingWheel wheel = new TimingWheel(1L, start);
+            for (int i = 0; i < offsets.length; i++) {
+                wheel.schedule(i, 0L, start + offsets[i]);
+            }
+
+            long[] firedAt = new long[offsets.length];
+            long end = start + offsets[offsets.length - 1];
+            for (long now = start + 1; now <= end; now++) {
+                long tick = now;
+                wheel.advance(now, (msb, lsb, deadline) -> firedAt[(int) msb] = tick);
+            }
+
+            for (int i = 0; i < offsets.length; i++) {
+                assertEquals(start + offsets[i], firedAt[i], "start " + start + ", offset " + offsets[i]);
+            }
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    void deadlinesRoundUpToTheNextTick() {
+        TimingWheel wheel = new TimingWheel(1_000L, 0L);
+        wheel.schedule(1L, 2L, 1_500L);
+
+        assertEquals(0, wheel.advance(1_999L, (msb, lsb, deadline) -> { }));
+
+        List<long[]> fired = new ArrayList<>();
+        assertEquals(1, wheel.advance(2_000L, (msb, lsb, deadline) -> fired.add(new long[]{msb, lsb, deadline})));
+        assertEquals(1L, fired.get(0)[0]);
+        assertEquals(2L, fired.get(0)[1]);
+        assertEquals(1_500L, fired.get(0)[2]);
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        TimingWheel wheel = new TimingWheel(10L, 1_000L);
+        wheel.schedule(1L, 1L, 500L);
+
+        assertEquals(0, wheel.advance(1_009L, (msb, lsb, deadline) -> { }));
+        assertEquals(1, wheel.advance(1_010L, (msb, lsb, deadline) -> { }));
+    }
+
+    @Test
+    void deadlinesBeyondTheSpanDoNotFireEarly() {
+        TimingWheel wheel = new TimingWheel(1L, 0L);
+        long deadline = SPAN_TICKS + 100L;
+        wheel.schedule(1L, 1L, deadline);
+
+        assertEquals(0, wheel.advance(deadline - 1, (msb, lsb, due) -> { }));
+        assertEquals(1, wheel.size());
+        assertEquals(1, wheel.advance(deadline, (msb, lsb, due) -> { }));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void clearDropsScheduledEntries() {
+        TimingWheel wheel = new TimingWheel(1L, 0L);
+        wheel.schedule(1L, 1L, 10L);
+        wheel.schedule(2L, 2L, 100_000L);
+
+        wheel.clear();
+
+        assertEquals(0, wheel.size());
+        assertEquals(0, wheel.advance(200_000L, (msb, lsb, deadline) -> { }));
+    }
+}
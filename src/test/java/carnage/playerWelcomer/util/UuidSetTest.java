@@ -0,0 +1,184 @@
+package carnage.playerWelcomer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers probing, backward-shift deletion across the end of the table, resizing and the nil UUID.
+ */
+class UuidSetTest {
+    private static final int DEFAULT_SLOTS = 16;
+
+    /**
+     * Random UUIDs whose home slot in a default-sized table is the given one.
+     */
+    private static List<UUID> withHomeSlot(int slot, int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            UUID id = UUID.randomUUID();
+            if ((UuidSet.hash(id.getMostSignificantBits(), id.getLeastSignificantBits()) & (DEFAULT_SLOTS - 1)) == slot) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    void collidingKeysAreAllFound() {
+        UuidSet set = new UuidSet();
+        List<UUID> ids = withHomeSlot(3, 5);
+        for (UUID id : ids) {
+            assertTrue(set.add(id));
+        }
+        for (UUID id : ids) {
+            assertTrue(set.contains(id));
+            assertFalse(set.add(id));
+        }
+        assertEquals(ids.size(), set.size());
+    }
+
+    @Test
+    void removeShiftsBackAProbeRunThatWrapsAround() {
+        UuidSet set = new UuidSet();
+        // Three keys homed in the last slot spill into slots 0 and 1; the fourth is homed in slot 0
+        List<UUID> last = withHomeSlot(DEFAULT_SLOTS - 1, 3);
+        UUID first = withHomeSlot(0, 1).get(0);
+        last.forEach(set::add);
+        set.add(first);
+
+        assertTrue(set.remove(last.get(0)));
+
+        assertFalse(set.contains(last.get(0)));
+        assertTrue(set.contains(last.get(1)));
+        assertTrue(set.contains(last.get(2)));
+        assertTrue(set.contains(first));
+        assertEquals(3, set.size());
+
+        // Removing from the middle of the wrapped run keeps the rest reachable
+        assertTrue(set.remove(last.get(2)));
+        assertTrue(set.contains(last.get(1)));
+        assertTrue(set.contains(first));
+        assertFalse(set.remove(last.get(2)));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void removeKeepsOtherKeysReachableUnderChurn() {
+        UuidSet set = new UuidSet();
+        List<UUID> kept = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            UUID keep = UUID.randomUUID();
+            UUID drop = UUID.randomUUID();
+            set.add(keep);
+            set.add(drop);
+            assertTrue(set.remove(drop));
+            kept.add(keep);
+        }
+
+        for (UUID id : kept) {
+            assertTrue(set.contains(id));
+        }
+        assertEquals(kept.size(), set.size());
+    }
+
+    @Test
+    void resizeKeepsEveryKey() {
+        UuidSet set = new UuidSet();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            assertTrue(set.add(id));
+        }
+
+        for (UUID id : ids) {
+            assertTrue(set.contains(id));
+        }
+        assertFalse(set.contains(UUID.randomUUID()));
+        assertEquals(ids.size(), set.size());
+    }
+
+    @Test
+    void readersSeeExistingKeysWhileWritesResize() throws InterruptedException {
+        UuidSet set = new UuidSet();
+        UUID[] existing = new UUID[1_000];
+        for (int i = 0; i < existing.length; i++) {
+            existing[i] = UUID.randomUUID();
+            set.add(existing[i]);
+        }
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (writing.get()) {
+                    UUID id = existing[ThreadLocalRandom.current().nextInt(existing.length)];
+                    if (!set.contains(id)) {
+                        misses.incrementAndGet();
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        // Grows the table through several resizes while the readers run
+        for (int i = 0; i < 100_000; i++) {
+            set.add(UUID.randomUUID());
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0, misses.get());
+        assertEquals(existing.length + 100_000, set.size());
+    }
+
+    @Test
+    void nilUuidIsAnOrdinaryMember() {
+        UuidSet set = new UuidSet();
+        UUID nil = new UUID(0L, 0L);
+        assertFalse(set.contains(nil));
+
+        assertTrue(set.add(nil));
+        assertFalse(set.add(nil));
+        assertTrue(set.contains(nil));
+        assertEquals(1, set.size());
+
+        // The nil key must not be confused with empty slots
+        UUID other = UUID.randomUUID();
+        set.add(other);
+        assertTrue(set.remove(nil));
+        assertFalse(set.contains(nil));
+        assertTrue(set.contains(other));
+        assertFalse(set.remove(nil));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void clearEmptiesTheSet() {
+        UuidSet set = new UuidSet(1_000);
+        UUID id = UUID.randomUUID();
+        set.add(id);
+        set.add(new UUID(0L, 0L));
+
+        set.clear();
+
+        assertFalse(set.contains(id));
+        assertFalse(set.contains(new UUID(0L, 0L)));
+        assertEquals(0, set.size());
+        assertTrue(set.add(id));
+    }
+}